@@ -0,0 +1,25 @@
+package org.example.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar
+ * Runs JMH with the given arguments and writes the results as JSON to jmh-result.json
+ * unless another result format is requested, so runs can be compared with each other
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add(0, "-rf");
+            arguments.add(1, "json");
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
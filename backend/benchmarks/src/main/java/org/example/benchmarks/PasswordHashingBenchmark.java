@@ -0,0 +1,51 @@
+package org.example.benchmarks;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt hashing and verification at the cost factors worth considering for app.auth.bcrypt.cost
+ * Each step of cost doubles the time, so this shows what a login costs before changing it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery";
+
+    @Param({"8", "10", "12"})
+    public int cost;
+
+    private String hashed;
+
+    @Setup
+    public void setup() {
+        hashed = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+    }
+
+    @Benchmark
+    public String hash() {
+        return BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return BCrypt.checkpw(PASSWORD, hashed);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmarks;
+
+import org.bson.types.ObjectId;
+import org.example.Book;
+import org.example.Poem;
+import org.example.User;
+import org.example.dto.SignupRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample data shared by the benchmarks, shaped like the seeded catalog
+ */
+final class Samples {
+
+    private Samples() {
+    }
+
+    static Book book(int i) {
+        Book book = new Book("The Hobbit, volume " + i, "J.R.R. Tolkien",
+            "The tale of Bilbo Baggins, a hobbit who embarks on an unexpected journey with a group of dwarves.",
+            new BigDecimal("12.99"), 50 + i % 50, "978-0-261-10221-" + (i % 10), LocalDate.of(1937, 9, 21).plusDays(i),
+            "George Allen & Unwin", "Fantasy", "https://example.org/covers/" + i + ".jpg");
+        book.id = new ObjectId();
+        book.setVersion((long) i % 5);
+        book.setReserved(0);
+        return book;
+    }
+
+    static List<Book> books(int size) {
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    static List<Poem> poems(int size) {
+        List<Poem> poems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Poem poem = new Poem("Forest Secrets " + i, "Woodland Echo",
+                "Ancient trees hold counsel in verdant cathedral halls,\n"
+                    + "Their whispered wisdom carried on the breeze that calls.\n"
+                    + "Beneath the canopy where dappled sunlight falls,\n"
+                    + "The forest keeps its secrets within emerald walls.");
+            poem.id = new ObjectId();
+            poems.add(poem);
+        }
+        return poems;
+    }
+
+    static Book invalidBook() {
+        Book book = book(0);
+        book.setTitle("");
+        book.setPrice(new BigDecimal("-1"));
+        book.setQuantity(null);
+        return book;
+    }
+
+    static SignupRequest signupRequest() {
+        return new SignupRequest("reader42", "reader42@example.org", "correct-horse-battery");
+    }
+
+    static SignupRequest invalidSignupRequest() {
+        return new SignupRequest("r", "not-an-email", "short");
+    }
+
+    static User user() {
+        return new User("reader42", "reader42@example.org", "$2a$10$hash", List.of("USER"));
+    }
+}
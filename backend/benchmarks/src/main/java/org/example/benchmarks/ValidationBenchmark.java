@@ -0,0 +1,83 @@
+package org.example.benchmarks;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.Book;
+import org.example.dto.SignupRequest;
+import org.hibernate.validator.HibernateValidator;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate Validator on the request bodies validated by @Valid
+ * Invalid inputs are measured separately, as building violations costs more than passing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private Book book;
+    private Book invalidBook;
+    private SignupRequest signup;
+    private SignupRequest invalidSignup;
+
+    @Setup
+    public void setup() {
+        // Quarkus interpolates messages without Expression Language as well
+        factory = Validation.byProvider(HibernateValidator.class)
+            .configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory();
+        validator = factory.getValidator();
+        book = Samples.book(1);
+        invalidBook = Samples.invalidBook();
+        signup = Samples.signupRequest();
+        invalidSignup = Samples.invalidSignupRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Book>> validBook() {
+        return validator.validate(book);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Book>> invalidBook() {
+        return validator.validate(invalidBook);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SignupRequest>> validSignupRequest() {
+        return validator.validate(signup);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SignupRequest>> invalidSignupRequest() {
+        return validator.validate(invalidSignup);
+    }
+}
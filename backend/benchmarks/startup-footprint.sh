@@ -0,0 +1,155 @@
+#!/usr/bin/env bash
+#
+# Compare the JVM and native builds of the backend: time to first request and resident memory
+#
+# Both builds must exist (./mvnw package and ./mvnw package -Pnative) and MongoDB must be reachable.
+# Each mode is started RUNS times and timed from launch until GET /api/poems answers;
+# the last run is then put under the same load and its resident memory read from /proc.
+#
+# Usage: benchmarks/startup-footprint.sh [jvm] [native]   (from the backend directory)
+#
+# Environment:
+#   RUNS         Measured starts per mode (default 5)
+#   REQUESTS     Requests of the load phase (default 20000)
+#   CONCURRENCY  Parallel requests of the load phase (default 32)
+#   HEAP         Maximum heap, passed as -Xmx to both modes (default 128m)
+#   PORT         HTTP port (default 8091)
+#   QUARKUS_MONGODB_CONNECTION_STRING  MongoDB to use (default mongodb://localhost:27017)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+REQUESTS=${REQUESTS:-20000}
+CONCURRENCY=${CONCURRENCY:-32}
+HEAP=${HEAP:-128m}
+PORT=${PORT:-8091}
+BASE_URL="http://localhost:${PORT}"
+OUT=target/startup-footprint
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(jvm native)
+fi
+
+mkdir -p "$OUT"
+
+command_for() {
+    case "$1" in
+        jvm)
+            echo "java -Xmx${HEAP} -Dquarkus.http.port=${PORT} -jar target/quarkus-app/quarkus-run.jar"
+            ;;
+        native)
+            local runner
+            runner=$(ls target/*-runner 2>/dev/null | head -1)
+            if [ -z "$runner" ]; then
+                echo "No native executable in target/, run ./mvnw package -Pnative first" >&2
+                exit 1
+            fi
+            echo "${runner} -Xmx${HEAP} -Dquarkus.http.port=${PORT}"
+            ;;
+        *)
+            echo "Unknown mode: $1 (expected jvm or native)" >&2
+            exit 1
+            ;;
+    esac
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+rss_kb() {
+    awk -v field="$2:" '$1 == field { print $2 }' "/proc/$1/status"
+}
+
+# Start the application and wait for its first successful request; sets APP_PID and ELAPSED_MS
+start_app() {
+    local mode=$1 log=$2 start command
+    command=$(command_for "$mode")
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    $command > "$log" 2>&1 &
+    APP_PID=$!
+    until curl -sf -o /dev/null "${BASE_URL}/api/poems"; do
+        if ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "The ${mode} application exited during startup, see ${log}" >&2
+            exit 1
+        fi
+        sleep 0.005
+    done
+    ELAPSED_MS=$(( $(now_ms) - start ))
+}
+
+stop_app() {
+    if [ -z "${APP_PID:-}" ]; then
+        return
+    fi
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+}
+
+trap 'stop_app' EXIT
+
+# Catalog browsing, search and typeahead, as in the load test
+write_load() {
+    local file=$1 urls=(
+        "/api/books?limit=50"
+        "/api/poems"
+        "/api/search?q=love&limit=20"
+        "/api/search/suggest?q=th"
+    )
+    : > "$file"
+    for ((i = 0; i < REQUESTS; i++)); do
+        printf 'url = "%s%s"\noutput = "/dev/null"\n' "$BASE_URL" "${urls[i % ${#urls[@]}]}" >> "$file"
+    done
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+write_load "$OUT/load.curl"
+printf 'mode,first_request_ms_median,first_request_ms_min,rss_started_mb,rss_loaded_mb,rss_peak_mb,load_seconds\n' > "$OUT/results.csv"
+
+for mode in "${MODES[@]}"; do
+    echo "== ${mode}"
+
+    # Priming start: generates the JWT keys if missing and warms the file cache, not measured
+    start_app "$mode" "$OUT/${mode}-prime.log"
+    stop_app
+
+    timings=()
+    for ((run = 1; run <= RUNS; run++)); do
+        start_app "$mode" "$OUT/${mode}-${run}.log"
+        timings+=("$ELAPSED_MS")
+        echo "   start ${run}: first request after ${ELAPSED_MS} ms"
+        if [ "$run" -lt "$RUNS" ]; then
+            stop_app
+        fi
+    done
+
+    sleep 1
+    rss_started=$(rss_kb "$APP_PID" VmRSS)
+
+    load_start=$(now_ms)
+    curl -s --parallel --parallel-max "$CONCURRENCY" -K "$OUT/load.curl"
+    load_ms=$(( $(now_ms) - load_start ))
+
+    rss_loaded=$(rss_kb "$APP_PID" VmRSS)
+    rss_peak=$(rss_kb "$APP_PID" VmHWM)
+    stop_app
+
+    first_median=$(printf '%s\n' "${timings[@]}" | median)
+    first_min=$(printf '%s\n' "${timings[@]}" | sort -n | head -1)
+    echo "   first request: median ${first_median} ms, min ${first_min} ms"
+    echo "   RSS: $(( rss_started / 1024 )) MB started, $(( rss_loaded / 1024 )) MB after ${REQUESTS} requests, $(( rss_peak / 1024 )) MB peak"
+    printf '%s,%s,%s,%s,%s,%s,%s\n' "$mode" "$first_median" "$first_min" \
+        $(( rss_started / 1024 )) $(( rss_loaded / 1024 )) $(( rss_peak / 1024 )) \
+        "$(awk -v ms="$load_ms" 'BEGIN { printf "%.1f", ms / 1000 }')" >> "$OUT/results.csv"
+done
+
+echo
+column -s, -t < "$OUT/results.csv"
+echo "Results written to ${OUT}/results.csv"
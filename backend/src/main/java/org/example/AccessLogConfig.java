@@ -0,0 +1,39 @@
+package org.example;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Access log settings
+ * Sample rates are keyed by endpoint path template, for example
+ * app.access-log.sample-rate."/api/books/{id}"=0.01
+ */
+@ConfigMapping(prefix = "app.access-log")
+public interface AccessLogConfig {
+
+    /**
+     * @return Whether requests are logged at all
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * @return Share of requests logged for endpoints without their own rate, from 0 to 1
+     */
+    @WithDefault("1.0")
+    double defaultSampleRate();
+
+    /**
+     * @return Share of requests logged per endpoint path template
+     */
+    Map<String, Double> sampleRate();
+
+    /**
+     * @return Requests at least this slow are always logged
+     */
+    @WithDefault("500ms")
+    Duration slowThreshold();
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+import org.jboss.logging.Logger;
+import org.jboss.logging.MDC;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled access log for the REST endpoints
+ * Server errors and slow requests are always logged; other requests are logged at the rate configured
+ * for their endpoint. The sampling decision is made before anything is formatted, so skipped requests
+ * cost a random number and a map lookup. Fields are passed through the MDC, so the JSON log format
+ * emits them as separate attributes.
+ */
+@Provider
+public class AccessLogFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger ACCESS = Logger.getLogger("access");
+    private static final String START = AccessLogFilter.class.getName() + ".start";
+    private static final String UNMATCHED = "unmatched";
+
+    private static final Map<Method, String> TEMPLATES = new ConcurrentHashMap<>();
+
+    @Inject
+    AccessLogConfig config;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (config.enabled()) {
+            request.setProperty(START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Object start = request.getProperty(START);
+        if (!(start instanceof Long) || !ACCESS.isInfoEnabled()) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - (Long) start;
+        int status = response.getStatus();
+        String template = template(resourceInfo);
+        if (status < 500 && durationNanos < config.slowThreshold().toNanos()
+                && ThreadLocalRandom.current().nextDouble() >= config.sampleRate().getOrDefault(template, config.defaultSampleRate())) {
+            return;
+        }
+
+        long durationMillis = durationNanos / 1_000_000;
+        MDC.put("http.method", request.getMethod());
+        MDC.put("http.route", template);
+        MDC.put("http.status", status);
+        MDC.put("duration.ms", durationMillis);
+        try {
+            ACCESS.infov("{0} {1} {2} {3}ms", request.getMethod(), request.getUriInfo().getPath(), status, durationMillis);
+        } finally {
+            MDC.remove("http.method");
+            MDC.remove("http.route");
+            MDC.remove("http.status");
+            MDC.remove("duration.ms");
+        }
+    }
+
+    /**
+     * Path template of the matched resource method, such as /api/books/{id}
+     */
+    static String template(ResourceInfo resourceInfo) {
+        Method method = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (method == null) {
+            return UNMATCHED;
+        }
+        return TEMPLATES.computeIfAbsent(method, key -> {
+            Path classPath = resourceInfo.getResourceClass().getAnnotation(Path.class);
+            Path methodPath = key.getAnnotation(Path.class);
+            String path = (classPath != null ? classPath.value() : "") + (methodPath != null ? "/" + methodPath.value() : "");
+            path = path.replaceAll("/+", "/");
+            return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        });
+    }
+}
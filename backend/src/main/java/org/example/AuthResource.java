@@ -1,14 +1,18 @@
 package org.example;
 
 import io.quarkus.runtime.StartupEvent;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
+import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
 import org.example.dto.LoginRequest;
+import org.example.dto.RefreshRequest;
 import org.example.dto.SignupRequest;
 import org.jboss.logging.Logger;
 
@@ -24,6 +28,9 @@ public class AuthResource {
     
     @Inject
     AuthService authService;
+
+    @Inject
+    JsonWebToken jwt;
     
     /**
      * Initialize default users on application startup
@@ -42,8 +49,9 @@ public class AuthResource {
     @POST
     @Path("/signup")
     @PermitAll
+    @RunOnVirtualThread
     public Response registerUser(@Valid SignupRequest request) {
-        LOGGER.info("New user signup request received");
+        LOGGER.debug("New user signup request received");
         return authService.register(request);
     }
     
@@ -56,11 +64,55 @@ public class AuthResource {
     @POST
     @Path("/login")
     @PermitAll
+    @RunOnVirtualThread
     public Response loginUser(@Valid LoginRequest request) {
-        LOGGER.info("User login request received");
+        LOGGER.debug("User login request received");
         return authService.login(request);
     }
     
+    /**
+     * Endpoint for renewing an access token
+     * The refresh token is single use; the response carries its replacement
+     *
+     * @param request The current refresh token
+     * @return HTTP response with new tokens, or 401 if the refresh token is not valid
+     */
+    @POST
+    @Path("/refresh")
+    @PermitAll
+    @RunOnVirtualThread
+    public Response refreshToken(@Valid RefreshRequest request) {
+        LOGGER.debug("Token refresh request received");
+        return authService.refresh(request);
+    }
+
+    /**
+     * Endpoint for ending the session of a refresh token
+     *
+     * @param request The refresh token to revoke
+     * @return HTTP 204 response
+     */
+    @POST
+    @Path("/logout")
+    @PermitAll
+    @RunOnVirtualThread
+    public Response logout(@Valid RefreshRequest request) {
+        return authService.logout(request);
+    }
+
+    /**
+     * Endpoint for ending every session of the authenticated user
+     *
+     * @return HTTP 204 response
+     */
+    @POST
+    @Path("/logout-all")
+    @RolesAllowed("USER")
+    @RunOnVirtualThread
+    public Response logoutEverywhere() {
+        return authService.logoutEverywhere(jwt.getSubject());
+    }
+
     /**
      * Test endpoint to verify user is authenticated as admin
      */
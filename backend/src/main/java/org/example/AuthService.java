@@ -1,15 +1,24 @@
 package org.example;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.smallrye.jwt.build.Jwt;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.jwt.Claims;
 import org.example.dto.AuthResponse;
 import org.example.dto.LoginRequest;
+import org.example.dto.RefreshRequest;
 import org.example.dto.SignupRequest;
 import org.jboss.logging.Logger;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -25,8 +34,20 @@ import java.util.Set;
 public class AuthService {
 
     private static final Logger LOGGER = Logger.getLogger(AuthService.class);
-    private static final String ROLE_USER = "USER";
-    private static final String ROLE_ADMIN = "ADMIN";
+    public static final String ROLE_USER = "USER";
+    public static final String ROLE_ADMIN = "ADMIN";
+
+    @Inject
+    PasswordHashingPool hashingPool;
+
+    @Inject
+    CredentialCache credentialCache;
+
+    @Inject
+    RefreshTokenService refreshTokens;
+
+    @ConfigProperty(name = "app.auth.access-token.ttl", defaultValue = "15M")
+    Duration accessTokenTtl;
     
     /**
      * Process user registration request
@@ -34,27 +55,23 @@ public class AuthService {
      * @param request The signup request
      * @return Response with authentication token or error message
      */
+    @WithSpan
     public Response register(SignupRequest request) {
-        LOGGER.infof("Processing registration for username: %s", request.getUsername());
+        LOGGER.debugf("Processing registration for username: %s", request.getUsername());
         
-        // Check if username already exists
-        if (User.findByUsername(request.getUsername()) != null) {
-            LOGGER.infof("Registration failed: Username '%s' already exists", request.getUsername());
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new AuthResponse(null, null, null, "Username already exists"))
-                .build();
-        }
-        
-        // Check if email already exists
-        if (User.findByEmail(request.getEmail()) != null) {
-            LOGGER.infof("Registration failed: Email '%s' already exists", request.getEmail());
-            return Response.status(Response.Status.CONFLICT)
-                .entity(new AuthResponse(null, null, null, "Email already exists"))
-                .build();
+        Response conflict = existingAccount(request);
+        if (conflict != null) {
+            return conflict;
         }
         
         // Hash the password
-        String hashedPassword = BCrypt.hashpw(request.getPassword(), BCrypt.gensalt());
+        String hashedPassword;
+        try {
+            hashedPassword = hashingPool.hash(request.getPassword());
+        } catch (PasswordHashingPool.SaturatedException e) {
+            LOGGER.warn("Registration rejected: password hashing pool saturated");
+            return serviceUnavailable();
+        }
         
         // Set user roles
         List<String> roles = new ArrayList<>();
@@ -65,56 +82,236 @@ public class AuthService {
         
         // Create and persist the new user
         User user = new User(request.getUsername(), request.getEmail(), hashedPassword, roles);
-        user.persist();
+        try {
+            user.persist();
+        } catch (MongoWriteException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            // A concurrent signup took the username or email after the checks above
+            conflict = existingAccount(request);
+            return conflict != null ? conflict : duplicateAccount();
+        }
         
         LOGGER.infof("User registered successfully: %s", request.getUsername());
         
-        // Generate JWT token
-        String token = generateToken(user);
-        
         return Response.status(Response.Status.CREATED)
-            .entity(new AuthResponse(token, user.getUsername(), user.getRoles(), "User registered successfully"))
+            .entity(authenticated(user, refreshTokens.issue(user), "User registered successfully"))
             .build();
     }
     
+    /**
+     * Check whether the username or email of a signup is taken
+     *
+     * @param request The signup request
+     * @return A 409 response naming the taken field, or null if both are free
+     */
+    private Response existingAccount(SignupRequest request) {
+        if (User.findByUsername(request.getUsername()) != null) {
+            LOGGER.infof("Registration failed: Username '%s' already exists", request.getUsername());
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new AuthResponse(null, null, null, "Username already exists"))
+                .build();
+        }
+        
+        if (User.findByEmail(request.getEmail()) != null) {
+            LOGGER.infof("Registration failed: Email '%s' already exists", request.getEmail());
+            return Response.status(Response.Status.CONFLICT)
+                .entity(new AuthResponse(null, null, null, "Email already exists"))
+                .build();
+        }
+        return null;
+    }
+    
+    /**
+     * Response for a signup rejected by a unique index when the conflicting account can no longer be found
+     *
+     * @return A 409 response
+     */
+    public Response duplicateAccount() {
+        return Response.status(Response.Status.CONFLICT)
+            .entity(new AuthResponse(null, null, null, "Username or email already exists"))
+            .build();
+    }
+    
+    /**
+     * Check whether a write failed on a unique index, such as the username and email indexes
+     *
+     * @param failure The failure of the write
+     * @return true for a duplicate key error (code 11000)
+     */
+    public static boolean isDuplicateKey(Throwable failure) {
+        return failure instanceof MongoWriteException e && e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY;
+    }
+    
     /**
      * Process user login request
      *
      * @param request The login request
      * @return Response with authentication token or error message
      */
+    @WithSpan
     public Response login(LoginRequest request) {
-        LOGGER.infof("Processing login for username: %s", request.getUsername());
+        LOGGER.debugf("Processing login for username: %s", request.getUsername());
+        
+        // Skip the database and BCrypt when the same credentials were verified recently
+        User cachedUser = credentialCache.lookup(request.getUsername(), request.getPassword());
+        if (cachedUser != null) {
+            LOGGER.debugf("User logged in successfully: %s", request.getUsername());
+            return Response.ok(authenticated(cachedUser, refreshTokens.issue(cachedUser), "Login successful"))
+                .build();
+        }
         
         // Find user by username
         User user = User.findByUsername(request.getUsername());
         
         // Check if user exists and password matches
-        if (user == null || !BCrypt.checkpw(request.getPassword(), user.getPassword())) {
+        boolean passwordMatches;
+        try {
+            passwordMatches = user != null && hashingPool.verify(request.getPassword(), user.getPassword());
+        } catch (PasswordHashingPool.SaturatedException e) {
+            LOGGER.warn("Login rejected: password hashing pool saturated");
+            return serviceUnavailable();
+        }
+        if (!passwordMatches) {
             LOGGER.info("Login failed: Invalid username or password");
             return Response.status(Response.Status.UNAUTHORIZED)
                 .entity(new AuthResponse(null, null, null, "Invalid username or password"))
                 .build();
         }
         
-        LOGGER.infof("User logged in successfully: %s", request.getUsername());
+        LOGGER.debugf("User logged in successfully: %s", request.getUsername());
+        credentialCache.store(user, request.getPassword());
+        rehashIfNeeded(user, request.getPassword());
         
-        // Generate JWT token
-        String token = generateToken(user);
-        
-        return Response.ok(new AuthResponse(token, user.getUsername(), user.getRoles(), "Login successful"))
+        return Response.ok(authenticated(user, refreshTokens.issue(user), "Login successful"))
+            .build();
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token
+     * Needs no password hash; the user is read again so role changes and deleted accounts take effect
+     *
+     * @param request The refresh request
+     * @return Response with the new tokens, or 401 if the refresh token is unknown, expired or already used
+     */
+    @WithSpan
+    public Response refresh(RefreshRequest request) {
+        String replacement = refreshTokens.newToken();
+        RefreshToken session = refreshTokens.rotate(request.getRefreshToken(), replacement);
+        if (session == null) {
+            LOGGER.debug("Refresh failed: unknown, expired or reused refresh token");
+            return invalidRefreshToken();
+        }
+        User user = User.findByUsername(session.getUsername());
+        if (user == null) {
+            refreshTokens.revokeAll(session.getUsername());
+            LOGGER.debugf("Refresh failed: user %s no longer exists", session.getUsername());
+            return invalidRefreshToken();
+        }
+        LOGGER.debugf("Access token refreshed for user: %s", session.getUsername());
+        return Response.ok(authenticated(user, replacement, "Token refreshed"))
+            .build();
+    }
+
+    private static Response invalidRefreshToken() {
+        return Response.status(Response.Status.UNAUTHORIZED)
+            .entity(new AuthResponse(null, null, null, "Invalid or expired refresh token"))
             .build();
     }
+
+    /**
+     * End the session of a refresh token
+     * Access tokens already issued stay valid until they expire
+     *
+     * @param request The refresh token to revoke
+     * @return 204, whether or not the session still existed
+     */
+    public Response logout(RefreshRequest request) {
+        if (refreshTokens.revoke(request.getRefreshToken())) {
+            LOGGER.debug("Session ended");
+        }
+        return Response.noContent().build();
+    }
+
+    /**
+     * End every session of a user
+     *
+     * @param username The user's username
+     * @return 204 response
+     */
+    public Response logoutEverywhere(String username) {
+        long revoked = refreshTokens.revokeAll(username);
+        LOGGER.infof("Revoked %d sessions of user: %s", revoked, username);
+        return Response.noContent().build();
+    }
+
+    /**
+     * Build the body of a successful signup, login or refresh
+     *
+     * @param user The authenticated user
+     * @param refreshToken The session's refresh token
+     * @param message The response message
+     * @return Response body with a new access token
+     */
+    public AuthResponse authenticated(User user, String refreshToken, String message) {
+        AuthResponse response = new AuthResponse(generateToken(user), user.getUsername(), user.getRoles(), message);
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(accessTokenTtl.toSeconds());
+        return response;
+    }
     
     /**
-     * Generate JWT token for authenticated user
+     * Upgrade the stored hash in the background when it uses another algorithm or weaker parameters
+     * This is how users move to a new algorithm or cost: lazily, the next time they log in.
+     * Skipped silently when the hashing pool is busy; it is retried on the next login
+     *
+     * @param user The authenticated user
+     * @param password The verified plain-text password
+     */
+    public void rehashIfNeeded(User user, String password) {
+        if (!hashingPool.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            hashingPool.submitHash(password).thenAccept(rehashed -> {
+                user.setPassword(rehashed);
+                user.update();
+                credentialCache.invalidate(user.getUsername());
+                LOGGER.infof("Password hash upgraded for user: %s", user.getUsername());
+            }).exceptionally(e -> {
+                LOGGER.warnf("Failed to upgrade password hash for user %s: %s", user.getUsername(), e.getMessage());
+                return null;
+            });
+        } catch (PasswordHashingPool.SaturatedException e) {
+            LOGGER.debugf("Skipping password rehash for user %s: hashing pool saturated", user.getUsername());
+        }
+    }
+
+    /**
+     * Build the response returned when password hashing capacity is exhausted
+     *
+     * @return 503 response with a Retry-After header
+     */
+    public Response serviceUnavailable() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", hashingPool.getRetryAfterSeconds())
+            .entity(new AuthResponse(null, null, null, "Authentication service busy, please retry"))
+            .build();
+    }
+    
+    /**
+     * Generate a short-lived JWT access token for an authenticated user
+     * Clients renew it with their refresh token, see app.auth.access-token.ttl
      *
      * @param user The authenticated user
      * @return JWT token as string
      */
-    private String generateToken(User user) {
+    @Timed(value = "auth.jwt.sign", description = "Time spent signing access tokens")
+    @WithSpan
+    public String generateToken(User user) {
         Instant now = Instant.now();
-        Instant expiry = now.plus(Duration.ofHours(24)); // Token valid for 24 hours
+        Instant expiry = now.plus(accessTokenTtl);
         
         return Jwt.issuer("poem-app")
             .subject(user.getUsername())
@@ -127,17 +324,33 @@ public class AuthService {
             .sign();
     }
     
+    /**
+     * Create unique indexes so username and email lookups are index seeks
+     */
+    private void createIndexes() {
+        MongoCollection<User> collection = User.mongoCollection();
+        for (String field : List.of("username", "email")) {
+            try {
+                collection.createIndex(Indexes.ascending(field), new IndexOptions().unique(true));
+            } catch (MongoException e) {
+                LOGGER.warnf("Could not create unique index on users.%s: %s", field, e.getMessage());
+            }
+        }
+    }
+    
     /**
      * Initialize the database with default users
      * This method should be called on application startup
      */
     public void initializeUsers() {
+        createIndexes();
+        
         // Check if users exist, if not create default admin and user
         if (User.count() == 0) {
             LOGGER.info("Initializing user database with default users");
             
             // Create admin user
-            String adminPassword = BCrypt.hashpw("admin123", BCrypt.gensalt());
+            String adminPassword = hashingPool.hash("admin123");
             User adminUser = new User(
                 "admin", 
                 "admin@example.com", 
@@ -147,7 +360,7 @@ public class AuthService {
             adminUser.persist();
             
             // Create regular user
-            String userPassword = BCrypt.hashpw("user123", BCrypt.gensalt());
+            String userPassword = hashingPool.hash("user123");
             User regularUser = new User(
                 "user", 
                 "user@example.com", 
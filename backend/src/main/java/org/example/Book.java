@@ -1,19 +1,27 @@
 package org.example;
 
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
 import io.quarkus.mongodb.panache.PanacheMongoEntity;
 import io.quarkus.mongodb.panache.common.MongoEntity;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import org.bson.codecs.pojo.annotations.BsonProperty;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a book entity stored in MongoDB
  * This class uses Panache for simplified MongoDB operations
  */
+@RegisterForReflection
 @MongoEntity(collection = "books")
 public class Book extends PanacheMongoEntity {
     
@@ -38,6 +46,10 @@ public class Book extends PanacheMongoEntity {
     @BsonProperty("quantity")
     private Integer quantity;
     
+    @PositiveOrZero
+    @BsonProperty("reserved")
+    private Integer reserved;
+    
     @BsonProperty("isbn")
     private String isbn;
     
@@ -52,6 +64,9 @@ public class Book extends PanacheMongoEntity {
     
     @BsonProperty("imageUrl")
     private String imageUrl;
+    
+    @BsonProperty("version")
+    private Long version;
 
     /**
      * Default constructor required for MongoDB serialization
@@ -129,6 +144,14 @@ public class Book extends PanacheMongoEntity {
         this.quantity = quantity;
     }
 
+    public Integer getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(Integer reserved) {
+        this.reserved = reserved;
+    }
+
     public String getIsbn() {
         return isbn;
     }
@@ -168,4 +191,126 @@ public class Book extends PanacheMongoEntity {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Builds a filter matching the book with the given ID, optionally only at the expected version
+     * Books stored before versioning was introduced have no version and count as version 0
+     *
+     * @param id The book's ID
+     * @param expectedVersion The version the caller last saw, or null to match any version
+     * @return Filter for a conditional update
+     */
+    public static Bson matchVersion(ObjectId id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Filters.eq("_id", id);
+        }
+        if (expectedVersion == 0L) {
+            return Filters.and(Filters.eq("_id", id),
+                Filters.or(Filters.eq("version", 0L), Filters.exists("version", false)));
+        }
+        return Filters.and(Filters.eq("_id", id), Filters.eq("version", expectedVersion));
+    }
+
+    /**
+     * Builds a filter matching the book with the given ID at any of several versions
+     *
+     * @param id The book's ID
+     * @param expectedVersions The versions the caller accepts
+     * @return Filter for a conditional update
+     */
+    public static Bson matchAnyVersion(ObjectId id, List<Long> expectedVersions) {
+        if (expectedVersions.size() == 1) {
+            return matchVersion(id, expectedVersions.get(0));
+        }
+        List<Bson> alternatives = new ArrayList<>();
+        for (Long expectedVersion : expectedVersions) {
+            alternatives.add(matchVersion(id, expectedVersion));
+        }
+        return Filters.or(alternatives);
+    }
+
+    /**
+     * Builds the filter for a conditional update from the versions in If-Match or, failing that, the body's version
+     *
+     * @param id The book's ID
+     * @param expectedVersions The versions from parseIfMatch, or null when the request had no If-Match
+     * @param bodyVersion The version in the request body, or null
+     * @return Filter for a conditional update, or null when the request names no version at all
+     */
+    public static Bson matchExpectedVersion(ObjectId id, List<Long> expectedVersions, Long bodyVersion) {
+        if (expectedVersions == null) {
+            return bodyVersion != null ? matchVersion(id, bodyVersion) : null;
+        }
+        return expectedVersions.isEmpty() ? matchVersion(id, null) : matchAnyVersion(id, expectedVersions);
+    }
+
+    /**
+     * Extract the versions accepted by an If-Match header
+     * If-Match uses strong comparison, so weak tags and tags that are not versions never match;
+     * a header with only such tags yields a version no book has.
+     * The -gzip tag of a compressed response names the same version as the plain one.
+     *
+     * @param ifMatch The header value, or null when absent
+     * @return The versions, an empty list for "*" (any version), or null when the header is absent
+     */
+    public static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String entry : ifMatch.split(",")) {
+            String tag = entry.trim();
+            if (tag.equals("*")) {
+                return List.of();
+            }
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String value = tag.substring(1, tag.length() - 1);
+            if (value.endsWith(ResponseCompression.GZIP_TAG_SUFFIX)) {
+                value = value.substring(0, value.length() - ResponseCompression.GZIP_TAG_SUFFIX.length());
+            }
+            try {
+                versions.add(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                // Not one of our tags
+            }
+        }
+        return versions.isEmpty() ? List.of(-1L) : versions;
+    }
+
+    /**
+     * Builds an update that writes the editable fields of this book and increments the version
+     * Null fields are removed, matching a full replacement of the document.
+     * The quantity and reserved count are left alone; they only change through the stock operations,
+     * so a form saved from a stale copy cannot undo concurrent reservations or sales
+     *
+     * @return Update document for findOneAndUpdate
+     */
+    public Bson toUpdate() {
+        List<Bson> updates = new ArrayList<>();
+        updates.add(setOrUnset("title", title));
+        updates.add(setOrUnset("author", author));
+        updates.add(setOrUnset("description", description));
+        updates.add(setOrUnset("price", price));
+        updates.add(setOrUnset("isbn", isbn));
+        updates.add(setOrUnset("publishedDate", publishedDate));
+        updates.add(setOrUnset("publisher", publisher));
+        updates.add(setOrUnset("category", category));
+        updates.add(setOrUnset("imageUrl", imageUrl));
+        updates.add(Updates.inc("version", 1L));
+        return Updates.combine(updates);
+    }
+
+    private static <T> Bson setOrUnset(String field, T value) {
+        return value != null ? Updates.set(field, value) : Updates.unset(field);
+    }
 }
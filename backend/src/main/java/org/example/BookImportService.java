@@ -0,0 +1,213 @@
+package org.example;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.example.dto.BulkImportResult;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for bulk book imports
+ * Reads books one at a time from a JSON array or NDJSON stream, validates them,
+ * and writes them in unordered batches so memory is bounded by the batch size
+ */
+@ApplicationScoped
+public class BookImportService {
+
+    private static final Logger LOGGER = Logger.getLogger(BookImportService.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    CatalogVersions catalogVersions;
+
+    @Inject
+    SearchService searchService;
+
+    @Inject
+    SuggestService suggestService;
+
+    @ConfigProperty(name = "app.books.import.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "app.books.import.max-errors", defaultValue = "1000")
+    int maxErrors;
+
+    /**
+     * Import books from a JSON array
+     * Elements are parsed one by one, so the array is never held in memory
+     *
+     * @param body Stream containing a JSON array of books
+     * @return The import outcome with per-row errors
+     * @throws IOException if the body cannot be read
+     */
+    public BulkImportResult importJsonArray(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of books");
+            }
+            long row = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        batch.reject(row++, "Expected a JSON object");
+                        continue;
+                    }
+                    batch.add(row++, parser.readValueAsTree());
+                }
+            } catch (JsonProcessingException e) {
+                // The array cannot be resynchronised after a syntax error, so stop here
+                batch.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Import books from newline-delimited JSON, one book per line
+     * A malformed line only rejects that row
+     *
+     * @param body Stream containing one JSON book per line
+     * @return The import outcome with per-row errors
+     * @throws IOException if the body cannot be read
+     */
+    public BulkImportResult importNdjson(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    batch.reject(row++, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                batch.add(row++, node);
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Accumulates valid books and flushes them to MongoDB when the batch is full
+     */
+    private class Batch {
+
+        private final BulkImportResult result = new BulkImportResult();
+        private final List<Book> books = new ArrayList<>(batchSize);
+        private final List<Long> rows = new ArrayList<>(batchSize);
+
+        void add(long row, JsonNode node) {
+            result.setReceived(result.getReceived() + 1);
+            Book book;
+            try {
+                book = objectMapper.treeToValue(node, Book.class);
+            } catch (JsonProcessingException e) {
+                recordError(row, "Invalid book: " + e.getOriginalMessage());
+                return;
+            }
+
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                recordError(row, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            book.id = new ObjectId();
+            book.setVersion(0L);
+            book.setReserved(0);
+            books.add(book);
+            rows.add(row);
+            if (books.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            result.setReceived(result.getReceived() + 1);
+            recordError(row, message);
+        }
+
+        BulkImportResult finish() {
+            flush();
+            LOGGER.infof("Bulk import finished: %d received, %d inserted, %d failed",
+                result.getReceived(), result.getInserted(), result.getFailed());
+            return result;
+        }
+
+        private void flush() {
+            if (books.isEmpty()) {
+                return;
+            }
+            LOGGER.debugf("Inserting batch of %d books", books.size());
+            MongoCollection<Book> collection = Book.mongoCollection();
+            Set<Integer> rejected = new HashSet<>();
+            try {
+                collection.insertMany(books, new InsertManyOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    recordError(rows.get(error.getIndex()), error.getMessage());
+                    rejected.add(error.getIndex());
+                }
+            }
+            for (int i = 0; i < books.size(); i++) {
+                if (!rejected.contains(i)) {
+                    searchService.indexBook(books.get(i));
+                    suggestService.indexBook(books.get(i));
+                }
+            }
+            int inserted = books.size() - rejected.size();
+            result.setInserted(result.getInserted() + inserted);
+            if (inserted > 0) {
+                catalogVersions.bump(CatalogVersions.BOOKS);
+            }
+            books.clear();
+            rows.clear();
+        }
+
+        private void recordError(long row, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxErrors) {
+                result.getErrors().add(new BulkImportResult.RowError(row, message));
+            }
+        }
+    }
+}
@@ -1,17 +1,35 @@
 package org.example;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bson.types.ObjectId;
+import org.example.dto.BookPage;
+import org.example.dto.BookQuery;
+import org.example.dto.BulkImportResult;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 /**
  * REST API endpoints for book operations
@@ -20,6 +38,7 @@ import org.jboss.logging.Logger;
 @Path("/api/books")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@Compressible
 public class BookResource {
     
     private static final Logger LOGGER = Logger.getLogger(BookResource.class);
@@ -27,36 +46,142 @@ public class BookResource {
     @Inject
     BookService bookService;
     
+    @Inject
+    BookImportService bookImportService;
+    
+    @Inject
+    CatalogVersions catalogVersions;
+    
+    @Inject
+    SuggestService suggestService;
+    
+    @Inject
+    StockService stockService;
+    
+    @Inject
+    ListResponseCache listCache;
+    
+    /**
+     * Retrieves all books, or a single page of books when paging, filter or sort parameters are given
+     * @param cursor Opaque cursor from the previous page
+     * @param limit Maximum number of books per page
+     * @param fields Comma-separated list of fields to include in each book
+     * @param query Filters (category, author, price and publication date ranges) and sort order
+     * @param request The request, used to evaluate If-None-Match
+     * @param headers The request headers, used to pick a cached gzip copy of the full list
+     * @return HTTP response with list of books, or a page with the next cursor, or 304 if unchanged
+     */
+    @GET
+    @PermitAll
+    @RunOnVirtualThread
+    public Response getAllBooks(@QueryParam("cursor") String cursor,
+                                @QueryParam("limit") Integer limit,
+                                @QueryParam("fields") String fields,
+                                @BeanParam BookQuery query,
+                                @Context Request request,
+                                @Context HttpHeaders headers) {
+        EntityTag tag = catalogVersions.tag(CatalogVersions.BOOKS);
+        Response.ResponseBuilder notModified = ResponseCompression.evaluatePreconditions(request, tag);
+        if (notModified != null) {
+            LOGGER.debug("Book list not modified");
+            return notModified.build();
+        }
+
+        if (cursor == null && limit == null && fields == null && query.isEmpty()) {
+            LOGGER.debug("GET request received for all books");
+            if (listCache.isEnabled()) {
+                return listCache.ok(CatalogVersions.BOOKS, tag, bookService::getAllBooks, headers).build();
+            }
+            List<Book> books = bookService.getAllBooks();
+            LOGGER.debugf("Returning %d books", books.size());
+            return Response.ok(books).tag(tag).build();
+        }
+
+        LOGGER.debugf("GET request received for page of books (limit: %s)", limit);
+        try {
+            BookPage page = bookService.getBooksPage(cursor, limit, parseFields(fields), query);
+            return Response.ok(page).tag(tag).build();
+        } catch (IllegalArgumentException e) {
+            LOGGER.debugf("Invalid page request: %s", e.getMessage());
+            return error(Status.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
-     * Retrieves all books
-     * @return HTTP response with list of books
+     * Build an error response with a JSON body
+     * The body is serialized rather than concatenated, so input echoed in the message stays valid JSON
+     */
+    private static Response error(Response.StatusType status, String message) {
+        return Response.status(status)
+            .entity(Map.of("error", message != null ? message : status.getReasonPhrase()))
+            .build();
+    }
+
+    /**
+     * Build the entity tag for a single book from its version
+     */
+    private static EntityTag versionTag(Book book) {
+        return new EntityTag(Long.toString(book.getVersion() != null ? book.getVersion() : 0L));
+    }
+
+    /**
+     * Split a comma-separated fields parameter into field names
+     */
+    private static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                names.add(field.trim());
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Exports all books as newline-delimited JSON
+     * Books are written as they are read from the database, one per line
+     * @return Stream of all books
      */
     @GET
+    @Path("/export")
     @PermitAll
-    public Response getAllBooks() {
-        LOGGER.info("GET request received for all books");
-        List<Book> books = bookService.getAllBooks();
-        LOGGER.debug("Returning " + books.size() + " books");
-        return Response.ok(books).build();
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<Book> exportBooks() {
+        LOGGER.debug("GET request received for book export");
+        return bookService.exportAllBooks();
     }
     
     /**
      * Retrieves a specific book by ID
+     * The ETag is the book's version, so it can be sent back in If-Match when updating
      * @param id The book's ID
-     * @return HTTP response with the book or 404 if not found
+     * @param request The request, used to evaluate If-None-Match
+     * @return HTTP response with the book, 304 if unchanged, or 404 if not found
      */
     @GET
     @Path("/{id}")
     @PermitAll
-    public Response getBookById(@PathParam("id") String id) {
-        LOGGER.infof("GET request received for book with ID: %s", id);
+    @RunOnVirtualThread
+    public Response getBookById(@PathParam("id") String id, @Context Request request) {
+        LOGGER.debugf("GET request received for book with ID: %s", id);
         Book book = bookService.getBookById(id);
             
         if (book != null) {
+            suggestService.recordView(id);
+            EntityTag tag = versionTag(book);
+            Response.ResponseBuilder notModified = ResponseCompression.evaluatePreconditions(request, tag);
+            if (notModified != null) {
+                LOGGER.debug("Book not modified");
+                return notModified.build();
+            }
             LOGGER.debug("Book found, returning data");
-            return Response.ok(book).build();
+            return Response.ok(book).tag(tag).build();
         } else {
-            LOGGER.infof("Book with ID %s not found", id);
+            LOGGER.debugf("Book with ID %s not found", id);
             return Response.status(Status.NOT_FOUND)
                 .entity("{\"error\": \"Book not found\"}")
                 .build();
@@ -70,36 +195,144 @@ public class BookResource {
      */
     @POST
     @RolesAllowed("ADMIN")
+    @RunOnVirtualThread
     public Response addBook(@Valid Book book) {
-        LOGGER.infof("POST request received to add book: %s", book.getTitle());
+        LOGGER.debugf("POST request received to add book: %s", book.getTitle());
         Book addedBook = bookService.addBook(book);
         
         return Response
             .created(URI.create("/api/books/" + addedBook.id))
+            .tag(versionTag(addedBook))
             .entity(addedBook)
             .build();
     }
     
+    /**
+     * Adds many books at once from a JSON array or an NDJSON stream
+     * The body is read incrementally and written in batches; invalid rows are reported, not fatal
+     * @param headers The request headers, used to pick the body format
+     * @param body The request body
+     * @return HTTP response with the import counts and per-row errors
+     */
+    @POST
+    @Path("/bulk")
+    @Consumes({MediaType.APPLICATION_JSON, RestMediaType.APPLICATION_NDJSON})
+    @RolesAllowed("ADMIN")
+    @RunOnVirtualThread
+    public Response importBooks(@Context HttpHeaders headers, InputStream body) {
+        boolean ndjson = headers.getMediaType() != null
+            && headers.getMediaType().isCompatible(MediaType.valueOf(RestMediaType.APPLICATION_NDJSON));
+        LOGGER.debugf("POST request received for bulk book import (%s)", ndjson ? "ndjson" : "json");
+        try {
+            BulkImportResult result = ndjson
+                ? bookImportService.importNdjson(body)
+                : bookImportService.importJsonArray(body);
+            return Response.ok(result).build();
+        } catch (IllegalArgumentException e) {
+            return error(Status.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            LOGGER.warnf("Bulk import failed while reading the request: %s", e.getMessage());
+            return Response.status(Status.BAD_REQUEST)
+                .entity("{\"error\": \"Failed to read request body\"}")
+                .build();
+        }
+    }
+    
     /**
      * Updates an existing book
+     * The update only applies if the book is still at the version given in If-Match,
+     * or in the version field of the body when no If-Match header is sent.
+     * The quantity in the body is ignored; stock is changed through the stock endpoints
      * @param id The book's ID
+     * @param ifMatch The ETags of the versions the edit may apply to
      * @param book The updated book data
-     * @return HTTP response with the updated book
+     * @return HTTP response with the updated book, 404 if not found, 409 if modified concurrently,
+     *         or 428 if neither If-Match nor a version is given
      */
     @PUT
     @Path("/{id}")
     @RolesAllowed("ADMIN")
-    public Response updateBook(@PathParam("id") String id, @Valid Book book) {
-        LOGGER.infof("PUT request received to update book with ID: %s", id);
+    @RunOnVirtualThread
+    public Response updateBook(@PathParam("id") String id, @HeaderParam("If-Match") String ifMatch, @Valid Book book) {
+        LOGGER.debugf("PUT request received to update book with ID: %s", id);
         try {
-            Book updatedBook = bookService.updateBook(id, book);
-            return Response.ok(updatedBook).build();
+            Book updatedBook = bookService.updateBook(id, book, Book.parseIfMatch(ifMatch));
+            return Response.ok(updatedBook).tag(versionTag(updatedBook)).build();
         } catch (NotFoundException e) {
-            LOGGER.infof("Book with ID %s not found for update", id);
-            return Response.status(Status.NOT_FOUND)
-                .entity("{\"error\": \"" + e.getMessage() + "\"}")
-                .build();
+            LOGGER.debugf("Book with ID %s not found for update", id);
+            return error(Status.NOT_FOUND, e.getMessage());
+        } catch (ClientErrorException e) {
+            LOGGER.debugf("Update of book with ID %s rejected: %s", id, e.getMessage());
+            return error(e.getResponse().getStatusInfo(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Reserves units of a book for a checkout
+     * @param id The book's ID
+     * @param units Number of units to reserve
+     * @return HTTP response with no content, 404 if not found, or 409 if not enough stock is available
+     */
+    @POST
+    @Path("/{id}/reserve")
+    @RolesAllowed({"USER", "ADMIN"})
+    @RunOnVirtualThread
+    public Response reserve(@PathParam("id") String id, @QueryParam("quantity") @DefaultValue("1") int units) {
+        LOGGER.debugf("POST request received to reserve %d units of book with ID: %s", units, id);
+        return changeStock(id, units, () -> stockService.reserve(id, units));
+    }
+    
+    /**
+     * Releases units reserved for an abandoned checkout
+     * Restricted to ADMIN, as reservations are not tied to the user who made them
+     * @param id The book's ID
+     * @param units Number of units to release
+     * @return HTTP response with no content, 404 if not found, or 409 if fewer units are reserved
+     */
+    @POST
+    @Path("/{id}/release")
+    @RolesAllowed("ADMIN")
+    @RunOnVirtualThread
+    public Response release(@PathParam("id") String id, @QueryParam("quantity") @DefaultValue("1") int units) {
+        LOGGER.debugf("POST request received to release %d units of book with ID: %s", units, id);
+        return changeStock(id, units, () -> stockService.release(id, units));
+    }
+    
+    /**
+     * Adds delivered units to stock, or removes units after a stock count
+     * @param id The book's ID
+     * @param units Units to add, or a negative number of units to remove
+     * @return HTTP response with no content, 404 if not found, or 409 if fewer units are available than are removed
+     */
+    @POST
+    @Path("/{id}/adjust")
+    @RolesAllowed("ADMIN")
+    @RunOnVirtualThread
+    public Response adjust(@PathParam("id") String id, @QueryParam("quantity") int units) {
+        LOGGER.debugf("POST request received to adjust stock of book with ID %s by %d units", id, units);
+        if (units == 0) {
+            return error(Status.BAD_REQUEST, "quantity must not be 0");
         }
+        return changeStock(id, Math.abs(units), () -> stockService.adjust(id, units));
+    }
+    
+    /**
+     * Removes sold units from stock
+     * Restricted to ADMIN, as it can take any title's stock down to zero
+     * @param id The book's ID
+     * @param units Number of units sold
+     * @param fromReserved true when the units were reserved first
+     * @return HTTP response with no content, 404 if not found, or 409 if not enough stock is available
+     */
+    @POST
+    @Path("/{id}/decrement")
+    @RolesAllowed("ADMIN")
+    @RunOnVirtualThread
+    public Response decrement(@PathParam("id") String id,
+                              @QueryParam("quantity") @DefaultValue("1") int units,
+                              @QueryParam("reserved") @DefaultValue("false") boolean fromReserved) {
+        LOGGER.debugf("POST request received to sell %d units of book with ID: %s", units, id);
+        return changeStock(id, units, () -> stockService.decrement(id, units, fromReserved));
     }
     
     /**
@@ -110,18 +343,41 @@ public class BookResource {
     @DELETE
     @Path("/{id}")
     @RolesAllowed("ADMIN")
+    @RunOnVirtualThread
     public Response deleteBook(@PathParam("id") String id) {
-        LOGGER.infof("DELETE request received for book with ID: %s", id);
+        LOGGER.debugf("DELETE request received for book with ID: %s", id);
         boolean deleted = bookService.deleteBook(id);
         
         if (deleted) {
             LOGGER.debug("Book deleted successfully");
             return Response.noContent().build();
         } else {
-            LOGGER.infof("Book with ID %s not found for deletion", id);
+            LOGGER.debugf("Book with ID %s not found for deletion", id);
+            return Response.status(Status.NOT_FOUND)
+                .entity("{\"error\": \"Book not found\"}")
+                .build();
+        }
+    }
+    
+    private static Response changeStock(String id, int units, Runnable change) {
+        if (units < 1) {
+            return Response.status(Status.BAD_REQUEST)
+                .entity("{\"error\": \"quantity must be at least 1\"}")
+                .build();
+        }
+        if (!ObjectId.isValid(id)) {
             return Response.status(Status.NOT_FOUND)
                 .entity("{\"error\": \"Book not found\"}")
                 .build();
         }
+        try {
+            change.run();
+            return Response.noContent().build();
+        } catch (NotFoundException e) {
+            return error(Status.NOT_FOUND, e.getMessage());
+        } catch (ClientErrorException e) {
+            LOGGER.debugf("Stock change rejected for book with ID %s: %s", id, e.getMessage());
+            return error(e.getResponse().getStatusInfo(), e.getMessage());
+        }
     }
 }
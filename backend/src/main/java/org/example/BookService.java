@@ -1,14 +1,51 @@
 package org.example;
 
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CacheResult;
 import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response.Status;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.bson.BsonType;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
 import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.example.dto.BookPage;
+import org.example.dto.BookQuery;
+import org.example.util.PageCursor;
 import org.jboss.logging.Logger;
 
 /**
@@ -20,11 +57,47 @@ public class BookService {
     
     private static final Logger LOGGER = Logger.getLogger(BookService.class);
 
+    /**
+     * Name of the in-memory cache holding books by ID
+     */
+    public static final String BOOK_CACHE = "books";
+
+    /**
+     * Fields that can be requested through a projection, mapped to their accessors
+     */
+    private static final Map<String, Function<Book, Object>> PROJECTABLE_FIELDS = createProjectableFields();
+
+    /**
+     * Fields the catalog can be sorted by, mapped to the BSON value stored for them
+     */
+    private static final Map<String, Function<Book, Object>> SORTABLE_FIELDS = createSortableFields();
+
+    @Inject
+    CatalogVersions catalogVersions;
+
+    @Inject
+    @CacheName(BOOK_CACHE)
+    Cache bookCache;
+
+    @Inject
+    SearchService searchService;
+
+    @Inject
+    SuggestService suggestService;
+
+    @ConfigProperty(name = "app.books.page.default-limit", defaultValue = "50")
+    int defaultPageLimit;
+
+    @ConfigProperty(name = "app.books.page.max-limit", defaultValue = "500")
+    int maxPageLimit;
+
     /**
      * Initialize the database with sample books if none exist
      * This method runs on application startup
      */
     void onStart(@Observes StartupEvent ev) {
+        createIndexes();
+        
         if (Book.count() == 0) {
             LOGGER.info("Initializing book database with sample data");
             
@@ -96,24 +169,257 @@ public class BookService {
                 )
             );
             
+            catalogVersions.bump(CatalogVersions.BOOKS);
             LOGGER.info("Database initialization complete. Added " + Book.count() + " books.");
         }
     }
 
+    /**
+     * Create the indexes backing catalog filters, sorts and ISBN uniqueness
+     * Each index ends with _id so keyset pagination on it is an index seek.
+     * Creating an index that already exists is a no-op.
+     */
+    private void createIndexes() {
+        MongoCollection<Book> collection = Book.mongoCollection();
+        for (String field : List.of("category", "author", "price", "publishedDate", "title")) {
+            createIndex(collection, Indexes.ascending(field, "_id"), new IndexOptions());
+        }
+        createIndex(collection, Indexes.ascending("isbn"), new IndexOptions()
+            .unique(true)
+            .partialFilterExpression(Filters.type("isbn", BsonType.STRING)));
+    }
+
+    private static void createIndex(MongoCollection<Book> collection, Bson keys, IndexOptions options) {
+        try {
+            String name = collection.createIndex(keys, options);
+            LOGGER.debugf("Ensured index %s on books", name);
+        } catch (MongoException e) {
+            LOGGER.warnf("Could not create index %s on books: %s", keys, e.getMessage());
+        }
+    }
+
     /**
      * Retrieve all books from the database
      * @return List of all books
      */
+    @WithSpan
     public List<Book> getAllBooks() {
         LOGGER.debug("Fetching all books");
         return Book.listAll();
     }
 
+    /**
+     * Retrieve one page of books using keyset pagination
+     * Filters become MongoDB conditions and the page resumes after the last sort key of the
+     * previous page, so only the requested page is loaded whatever the collection size
+     *
+     * @param cursor Opaque cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of books to return, or null for the default page size
+     * @param fields Fields to include in each item, or an empty set for whole books
+     * @param bookQuery Filters and sort order
+     * @return The page of books with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor, limit, fields, filters or sort are invalid
+     */
+    @WithSpan
+    public BookPage getBooksPage(String cursor, Integer limit, Set<String> fields, BookQuery bookQuery) {
+        int pageSize = limit != null ? limit : defaultPageLimit;
+        if (pageSize < 1 || pageSize > maxPageLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageLimit);
+        }
+        for (String field : fields) {
+            if (!PROJECTABLE_FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+
+        String sortField = "_id";
+        boolean ascending = true;
+        if (bookQuery.getSort() != null && !bookQuery.getSort().isBlank()) {
+            String sort = bookQuery.getSort().trim();
+            ascending = !sort.startsWith("-");
+            sortField = sort.replaceFirst("^[-+]", "");
+            if (!SORTABLE_FIELDS.containsKey(sortField)) {
+                throw new IllegalArgumentException("Cannot sort by: " + sortField);
+            }
+        }
+        LOGGER.debugf("Fetching page of %d books sorted by %s", pageSize, sortField);
+
+        List<Bson> conditions = toConditions(bookQuery);
+        if (cursor != null) {
+            PageCursor position = PageCursor.decode(cursor);
+            if (!sortField.equals(position.getSortField()) || ascending != position.isAscending()) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            conditions.add(after(position));
+        }
+        Bson filter = conditions.isEmpty() ? Filters.empty() : Filters.and(conditions);
+        Bson sort = ascending
+            ? Sorts.ascending(sortField, "_id")
+            : Sorts.descending(sortField, "_id");
+
+        MongoCollection<Book> collection = Book.mongoCollection();
+        FindIterable<Book> query = collection.find(filter)
+            .sort(sort)
+            .limit(pageSize + 1)
+            .batchSize(pageSize + 1);
+        if (!fields.isEmpty()) {
+            List<String> included = new ArrayList<>(fields);
+            if (!"_id".equals(sortField) && !fields.contains(sortField)) {
+                included.add(sortField);
+            }
+            query = query.projection(Projections.include(included));
+        }
+
+        List<Object> items = new ArrayList<>(Math.min(pageSize, 64));
+        Book last = null;
+        boolean hasMore = false;
+        try (MongoCursor<Book> books = query.iterator()) {
+            while (books.hasNext()) {
+                Book book = books.next();
+                if (items.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                items.add(fields.isEmpty() ? book : project(book, fields));
+                last = book;
+            }
+        }
+
+        String next = null;
+        if (hasMore) {
+            Object lastValue = "_id".equals(sortField) ? null : SORTABLE_FIELDS.get(sortField).apply(last);
+            next = new PageCursor(sortField, ascending, lastValue, last.id).encode();
+        }
+        return new BookPage(items, next);
+    }
+
+    /**
+     * Translate the filter parameters into MongoDB conditions
+     */
+    private static List<Bson> toConditions(BookQuery bookQuery) {
+        List<Bson> conditions = new ArrayList<>();
+        if (bookQuery.getCategory() != null) {
+            conditions.add(Filters.eq("category", bookQuery.getCategory()));
+        }
+        if (bookQuery.getAuthor() != null) {
+            conditions.add(Filters.eq("author", bookQuery.getAuthor()));
+        }
+        if (bookQuery.getMinPrice() != null) {
+            conditions.add(Filters.gte("price", new Decimal128(bookQuery.getMinPrice())));
+        }
+        if (bookQuery.getMaxPrice() != null) {
+            conditions.add(Filters.lte("price", new Decimal128(bookQuery.getMaxPrice())));
+        }
+        if (bookQuery.getPublishedFrom() != null) {
+            conditions.add(Filters.gte("publishedDate", toDate(parseDate(bookQuery.getPublishedFrom()))));
+        }
+        if (bookQuery.getPublishedTo() != null) {
+            conditions.add(Filters.lte("publishedDate", toDate(parseDate(bookQuery.getPublishedTo()))));
+        }
+        return conditions;
+    }
+
+    /**
+     * Build the condition selecting the documents that sort after the cursor position
+     * Missing values sort before all others in MongoDB, so they come first in ascending
+     * order and last in descending order
+     */
+    private static Bson after(PageCursor position) {
+        String field = position.getSortField();
+        Object value = position.getLastValue();
+        ObjectId id = position.getLastId();
+        if ("_id".equals(field)) {
+            return position.isAscending() ? Filters.gt("_id", id) : Filters.lt("_id", id);
+        }
+        if (position.isAscending()) {
+            if (value == null) {
+                return Filters.or(Filters.and(Filters.eq(field, null), Filters.gt("_id", id)), Filters.ne(field, null));
+            }
+            return Filters.or(Filters.gt(field, value), Filters.and(Filters.eq(field, value), Filters.gt("_id", id)));
+        }
+        if (value == null) {
+            return Filters.and(Filters.eq(field, null), Filters.lt("_id", id));
+        }
+        return Filters.or(Filters.lt(field, value), Filters.and(Filters.eq(field, value), Filters.lt("_id", id)),
+            Filters.eq(field, null));
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+    }
+
+    /**
+     * Convert a date to the UTC midnight timestamp it is stored as
+     */
+    private static Date toDate(LocalDate date) {
+        return date != null ? Date.from(date.atStartOfDay(ZoneOffset.UTC).toInstant()) : null;
+    }
+
+    /**
+     * Reduce a book to its ID and the requested fields
+     */
+    private static Map<String, Object> project(Book book, Set<String> fields) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", book.id);
+        for (String field : fields) {
+            item.put(field, PROJECTABLE_FIELDS.get(field).apply(book));
+        }
+        return item;
+    }
+
+    private static Map<String, Function<Book, Object>> createSortableFields() {
+        Map<String, Function<Book, Object>> fields = new LinkedHashMap<>();
+        fields.put("title", Book::getTitle);
+        fields.put("author", Book::getAuthor);
+        fields.put("price", book -> book.getPrice() != null ? new Decimal128(book.getPrice()) : null);
+        fields.put("publishedDate", book -> toDate(book.getPublishedDate()));
+        return Collections.unmodifiableMap(fields);
+    }
+
+    private static Map<String, Function<Book, Object>> createProjectableFields() {
+        Map<String, Function<Book, Object>> fields = new LinkedHashMap<>();
+        fields.put("title", Book::getTitle);
+        fields.put("author", Book::getAuthor);
+        fields.put("description", Book::getDescription);
+        fields.put("price", Book::getPrice);
+        fields.put("quantity", Book::getQuantity);
+        fields.put("reserved", Book::getReserved);
+        fields.put("isbn", Book::getIsbn);
+        fields.put("publishedDate", Book::getPublishedDate);
+        fields.put("publisher", Book::getPublisher);
+        fields.put("category", Book::getCategory);
+        fields.put("imageUrl", Book::getImageUrl);
+        fields.put("version", Book::getVersion);
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * Stream all books from a database cursor
+     * Each book is emitted as soon as it is read and the cursor only advances when
+     * the subscriber requests more, so memory use stays constant for any collection size
+     * @return Stream of all books, closed on completion, failure or cancellation
+     */
+    public Multi<Book> exportAllBooks() {
+        LOGGER.debug("Streaming all books");
+        return Multi.createFrom().<Stream<Book>, Book>resource(
+                () -> Book.streamAll(),
+                books -> Multi.createFrom().iterable(books::iterator))
+            .withFinalizer(books -> { books.close(); })
+            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
     /**
      * Retrieve a specific book by ID
+     * Results are served from the book cache, which is invalidated by updates and deletions
      * @param id The book's ID
      * @return The book if found, null otherwise
      */
+    @CacheResult(cacheName = BOOK_CACHE)
+    @WithSpan
     public Book getBookById(String id) {
         LOGGER.debugf("Fetching book with ID: %s", id);
         return Book.findById(new ObjectId(id));
@@ -124,39 +430,60 @@ public class BookService {
      * @param book The book to add
      * @return The added book with generated ID
      */
+    @WithSpan
     public Book addBook(Book book) {
         LOGGER.debugf("Adding new book: %s by %s", book.getTitle(), book.getAuthor());
+        book.setVersion(0L);
+        book.setReserved(0);
         book.persist();
+        catalogVersions.bump(CatalogVersions.BOOKS);
+        searchService.indexBook(book);
+        suggestService.indexBook(book);
         return book;
     }
     
     /**
-     * Update an existing book
+     * Update an existing book with a single conditional write
+     * The version is checked and incremented atomically, so concurrent edits cannot overwrite each other.
+     * An update that names no version is refused rather than applied blindly.
      * @param id The book's ID
      * @param book The updated book data
+     * @param expectedVersions The versions the update may apply to, empty for any version,
+     *                         or null to use the version in the book data
      * @return The updated book
      * @throws NotFoundException if the book is not found
+     * @throws ClientErrorException with status 409 if the book is at none of the expected versions,
+     *                              or 428 if no version is given at all
      */
-    public Book updateBook(String id, Book book) {
+    @WithSpan
+    public Book updateBook(String id, Book book, List<Long> expectedVersions) {
         LOGGER.debugf("Updating book with ID: %s", id);
-        Book existingBook = Book.findById(new ObjectId(id));
-        if (existingBook == null) {
-            throw new NotFoundException("Book with ID " + id + " not found");
+        ObjectId objectId = new ObjectId(id);
+        Bson filter = Book.matchExpectedVersion(objectId, expectedVersions, book.getVersion());
+        if (filter == null) {
+            throw new ClientErrorException("Updating book with ID " + id + " requires If-Match or a version",
+                Status.PRECONDITION_REQUIRED);
         }
         
-        existingBook.setTitle(book.getTitle());
-        existingBook.setAuthor(book.getAuthor());
-        existingBook.setDescription(book.getDescription());
-        existingBook.setPrice(book.getPrice());
-        existingBook.setQuantity(book.getQuantity());
-        existingBook.setIsbn(book.getIsbn());
-        existingBook.setPublishedDate(book.getPublishedDate());
-        existingBook.setPublisher(book.getPublisher());
-        existingBook.setCategory(book.getCategory());
-        existingBook.setImageUrl(book.getImageUrl());
+        MongoCollection<Book> collection = Book.mongoCollection();
+        Book updatedBook = collection.findOneAndUpdate(
+            filter,
+            book.toUpdate(),
+            new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
         
-        existingBook.update();
-        return existingBook;
+        if (updatedBook == null) {
+            if (Book.count("_id", objectId) == 0) {
+                throw new NotFoundException("Book with ID " + id + " not found");
+            }
+            throw new ClientErrorException("Book with ID " + id + " was modified by another request", Status.CONFLICT);
+        }
+        
+        catalogVersions.bump(CatalogVersions.BOOKS);
+        // Evicted only once the write is done, so a concurrent lookup cannot cache the old document again
+        bookCache.invalidate(id).await().indefinitely();
+        searchService.indexBook(updatedBook);
+        suggestService.indexBook(updatedBook);
+        return updatedBook;
     }
     
     /**
@@ -164,8 +491,16 @@ public class BookService {
      * @param id The book's ID
      * @return true if the book was deleted, false if it wasn't found
      */
+    @WithSpan
     public boolean deleteBook(String id) {
         LOGGER.debugf("Deleting book with ID: %s", id);
-        return Book.deleteById(new ObjectId(id));
+        boolean deleted = Book.deleteById(new ObjectId(id));
+        if (deleted) {
+            catalogVersions.bump(CatalogVersions.BOOKS);
+            bookCache.invalidate(id).await().indefinitely();
+            searchService.removeBook(id);
+            suggestService.removeBook(id);
+        }
+        return deleted;
     }
 }
@@ -0,0 +1,153 @@
+package org.example;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.jwt.auth.principal.DefaultJWTCallerPrincipalFactory;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTCallerPrincipal;
+import io.smallrye.jwt.auth.principal.JWTCallerPrincipalFactory;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens with the default SmallRye JWT parser, caching the verified principals
+ * A token seen again skips parsing and RS256 signature verification until it expires.
+ * Entries are keyed by a SHA-256 digest of the token, so the cache does not hold the tokens themselves,
+ * and each entry expires with its token's exp claim, capped by app.auth.jwt-cache.max-ttl.
+ * Verification is timed and traced, with cache hits recorded as their own outcome.
+ * The Caffeine classes of a size-bounded cache with per-entry expiry are registered for native images,
+ * which only get the classes of the caches configured through quarkus.cache.
+ */
+@RegisterForReflection(classNames = {
+    "com.github.benmanes.caffeine.cache.SSSMSA",
+    "com.github.benmanes.caffeine.cache.PSAMS"
+})
+@ApplicationScoped
+@Alternative
+@Priority(1)
+public class CachingJWTCallerPrincipalFactory extends JWTCallerPrincipalFactory {
+
+    private final DefaultJWTCallerPrincipalFactory delegate = new DefaultJWTCallerPrincipalFactory();
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.auth.jwt-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.auth.jwt-cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    @ConfigProperty(name = "app.auth.jwt-cache.max-ttl", defaultValue = "5M")
+    Duration maxTtl;
+
+    private Cache<String, JWTCallerPrincipal> verified;
+    private Timer verifySuccess;
+    private Timer verifyFailure;
+    private Timer verifyCached;
+
+    @PostConstruct
+    void init() {
+        verified = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new UntilTokenExpiry(maxTtl))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt-verification");
+
+        verifySuccess = verifyTimer("success");
+        verifyFailure = verifyTimer("failure");
+        verifyCached = verifyTimer("cached");
+    }
+
+    @Override
+    @WithSpan("jwt.verify")
+    public JWTCallerPrincipal parse(String token, JWTAuthContextInfo authContextInfo) throws ParseException {
+        long start = System.nanoTime();
+        String key = enabled ? digest(token) : null;
+        if (key != null) {
+            JWTCallerPrincipal cached = verified.getIfPresent(key);
+            if (cached != null) {
+                verifyCached.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+
+        try {
+            JWTCallerPrincipal principal = delegate.parse(token, authContextInfo);
+            if (key != null) {
+                verified.put(key, principal);
+            }
+            verifySuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return principal;
+        } catch (ParseException e) {
+            verifyFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("auth.jwt.verify")
+            .description("Time spent verifying bearer tokens")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Keeps a verified principal until its token expires, and no longer than the maximum TTL
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, JWTCallerPrincipal> {
+
+        private final long maxTtlNanos;
+
+        UntilTokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, JWTCallerPrincipal principal, long currentTime) {
+            if (principal.getExpirationTime() <= 0) {
+                return maxTtlNanos;
+            }
+            long remainingSeconds = principal.getExpirationTime() - System.currentTimeMillis() / 1000;
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.SECONDS.toNanos(remainingSeconds)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JWTCallerPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JWTCallerPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+import io.quarkus.mongodb.panache.PanacheMongoEntityBase;
+import io.quarkus.mongodb.panache.common.MongoEntity;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.bson.codecs.pojo.annotations.BsonId;
+import org.bson.codecs.pojo.annotations.BsonProperty;
+
+/**
+ * Change counter of one collection, shared by every replica through MongoDB
+ * The epoch is set when the document is created, so a counter that is dropped and starts
+ * again from zero never repeats an earlier entity tag.
+ */
+@RegisterForReflection
+@MongoEntity(collection = "catalog_versions")
+public class CatalogVersion extends PanacheMongoEntityBase {
+
+    @BsonId
+    private String collection;
+
+    @BsonProperty("epoch")
+    private long epoch;
+
+    @BsonProperty("version")
+    private long version;
+
+    /**
+     * Default constructor required for MongoDB serialization
+     */
+    public CatalogVersion() {
+        // Default constructor required for MongoDB
+    }
+
+    // Getters and setters
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import org.bson.conversions.Bson;
+import org.example.reactive.ReactiveCatalogVersionRepository;
+
+/**
+ * Tracks a change counter per collection to derive entity tags for conditional requests
+ * The counters live in the catalog_versions collection, so a write through any replica changes
+ * the tag every replica sends. Write paths bump the counter of the collection they modify right
+ * after their write; a known tag can then be answered with 304 Not Modified after a single
+ * lookup by _id, without reading the collection itself.
+ * Only list endpoints use these tags; single books and poems are tagged with their own version.
+ */
+@ApplicationScoped
+public class CatalogVersions {
+
+    public static final String BOOKS = "books";
+    public static final String POEMS = "poems";
+
+    @Inject
+    ReactiveCatalogVersionRepository reactiveVersions;
+
+    /**
+     * Record a change to a collection
+     *
+     * @param collection The collection that changed
+     */
+    public void bump(String collection) {
+        CatalogVersion.mongoCollection().updateOne(Filters.eq("_id", collection), increment(), new UpdateOptions().upsert(true));
+    }
+
+    /**
+     * Record a change to a collection without blocking, for the reactive write paths
+     *
+     * @param collection The collection that changed
+     * @return Completes once the change is recorded
+     */
+    public Uni<Void> bumpAsync(String collection) {
+        return reactiveVersions.mongoCollection()
+            .updateOne(Filters.eq("_id", collection), increment(), new UpdateOptions().upsert(true))
+            .replaceWithVoid();
+    }
+
+    /**
+     * Build a strong entity tag for the current state of a collection
+     *
+     * @param collection The collection name
+     * @return Entity tag that changes whenever the collection changes
+     */
+    public EntityTag tag(String collection) {
+        CatalogVersion version = CatalogVersion.findById(collection);
+        if (version == null) {
+            return new EntityTag(collection + "-0-0");
+        }
+        return new EntityTag(collection + "-" + Long.toString(version.getEpoch(), 36) + "-" + version.getVersion());
+    }
+
+    private static Bson increment() {
+        return Updates.combine(
+            Updates.inc("version", 1L),
+            Updates.setOnInsert("epoch", System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,38 @@
+package org.example;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.util.Map;
+
+/**
+ * Response compression settings
+ * Levels are keyed by endpoint path template, for example
+ * app.compression.level."/api/books"=4
+ */
+@ConfigMapping(prefix = "app.compression")
+public interface CompressionConfig {
+
+    /**
+     * @return Whether responses are gzip-compressed at all
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * @return Smallest body, in bytes, that is compressed; smaller bodies are sent as they are
+     */
+    @WithDefault("1024")
+    int minSize();
+
+    /**
+     * @return Gzip level from 1 (fastest) to 9 (smallest) for endpoints without their own level
+     */
+    @WithDefault("6")
+    int defaultLevel();
+
+    /**
+     * @return Gzip level per endpoint path template
+     */
+    Map<String, Integer> level();
+}
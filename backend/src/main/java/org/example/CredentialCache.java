@@ -0,0 +1,120 @@
+package org.example;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Short-lived cache of recently verified credentials
+ * Maps a username to a keyed digest of the password that was verified with BCrypt,
+ * so repeated logins with the same credentials skip the BCrypt check.
+ * The digest key is random per process, so cached digests are useless outside this JVM.
+ */
+@ApplicationScoped
+public class CredentialCache {
+
+    private static final Logger LOGGER = Logger.getLogger(CredentialCache.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Inject
+    @CacheName("verified-credentials")
+    Cache cache;
+
+    @ConfigProperty(name = "app.auth.credential-cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    private SecretKeySpec digestKey;
+
+    @PostConstruct
+    void init() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        digestKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Look up a user whose password was recently verified
+     *
+     * @param username The supplied username
+     * @param password The supplied plain-text password
+     * @return The cached user if the same credentials were verified recently, null otherwise
+     */
+    public User lookup(String username, String password) {
+        if (!enabled) {
+            return null;
+        }
+        CompletableFuture<Object> cached = cache.as(CaffeineCache.class).getIfPresent(username);
+        if (cached == null) {
+            return null;
+        }
+        Entry entry = (Entry) cached.join();
+        if (!MessageDigest.isEqual(entry.digest, digest(password))) {
+            return null;
+        }
+        LOGGER.debugf("Credential cache hit for user: %s", username);
+        return entry.user;
+    }
+
+    /**
+     * Remember credentials that were just verified with BCrypt
+     *
+     * @param user The authenticated user
+     * @param password The verified plain-text password
+     */
+    public void store(User user, String password) {
+        if (!enabled) {
+            return;
+        }
+        cache.as(CaffeineCache.class).put(user.getUsername(),
+            CompletableFuture.completedFuture(new Entry(digest(password), user)));
+    }
+
+    /**
+     * Forget cached credentials for a user
+     * Must be called whenever the user's password or roles change
+     *
+     * @param username The username to invalidate
+     */
+    public void invalidate(String username) {
+        if (!enabled) {
+            return;
+        }
+        cache.invalidate(username).await().indefinitely();
+    }
+
+    private byte[] digest(String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(digestKey);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    /**
+     * Cached verification result
+     */
+    private static class Entry {
+        private final byte[] digest;
+        private final User user;
+
+        Entry(byte[] digest, User user) {
+            this.digest = digest;
+            this.user = user;
+        }
+    }
+}
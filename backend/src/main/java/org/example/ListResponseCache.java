@@ -0,0 +1,179 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized JSON of the full book and poem lists, with a gzip copy when compression is enabled
+ * Entries are labelled with the CatalogVersions tag the request read before loading. The tag comes
+ * from MongoDB, so a write through any replica makes the next request reload and serialize the list
+ * once; other requests reuse the bytes without reading the collection or calling Jackson.
+ * Entries older than app.list-cache.max-age are reloaded anyway, which bounds staleness for writes
+ * that bypass the application and so never bump the tag.
+ */
+@ApplicationScoped
+public class ListResponseCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ListResponseCache.class);
+
+    @ConfigProperty(name = "app.list-cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.list-cache.max-age", defaultValue = "5M")
+    Duration maxAge;
+
+    @Inject
+    CompressionConfig compression;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("catalog.list.cache")
+            .tag("outcome", "hit")
+            .register(registry);
+        misses = Counter.builder("catalog.list.cache")
+            .tag("outcome", "miss")
+            .register(registry);
+    }
+
+    /**
+     * @return Whether list responses are served from the cache
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Build a 200 response with the serialized list of a collection
+     * The gzip copy is sent when the client accepts it, with the -gzip variant of the tag; either way
+     * the response varies by Accept-Encoding.
+     * Bodies below app.compression.min-size have no gzip copy and are always sent as they are.
+     *
+     * @param collection The collection name, as used by CatalogVersions
+     * @param tag The collection's current tag from CatalogVersions, read before any loading
+     * @param loader Loads the whole collection, called only when the cached bytes are out of date
+     * @param headers The request headers, used to read Accept-Encoding
+     * @return Response builder with the entity, entity tag and content headers set
+     */
+    public Response.ResponseBuilder ok(String collection, EntityTag tag, Supplier<? extends List<?>> loader,
+                                       HttpHeaders headers) {
+        Entry entry = get(collection, tag.getValue(), loader);
+        Response.ResponseBuilder response = Response.ok().type(MediaType.APPLICATION_JSON_TYPE);
+        if (entry.gzip == null) {
+            return response.entity(entry.json).tag(tag);
+        }
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (ResponseCompression.acceptsGzip(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.entity(entry.gzip)
+                .header(HttpHeaders.CONTENT_ENCODING, ResponseCompression.GZIP)
+                .tag(ResponseCompression.gzipTag(tag));
+        }
+        return response.entity(entry.json).tag(tag);
+    }
+
+    /**
+     * Get the cached bytes of a collection, reloading them if the collection changed or they are too old
+     * Only one request per collection reloads; the others wait for its result instead of loading too
+     */
+    private Entry get(String collection, String tag, Supplier<? extends List<?>> loader) {
+        Entry entry = entries.get(collection);
+        if (isCurrent(entry, tag)) {
+            hits.increment();
+            return entry;
+        }
+
+        ReentrantLock lock = locks.computeIfAbsent(collection, name -> new ReentrantLock());
+        lock.lock();
+        try {
+            entry = entries.get(collection);
+            if (isCurrent(entry, tag)) {
+                hits.increment();
+                return entry;
+            }
+            misses.increment();
+            entry = serialize(tag, loader.get());
+            entries.put(collection, entry);
+            LOGGER.debugf("Cached %s list %s (%d bytes, %d gzipped)", collection, tag,
+                entry.json.length, entry.gzip != null ? entry.gzip.length : 0);
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isCurrent(Entry entry, String tag) {
+        return entry != null && entry.tag.equals(tag) && System.nanoTime() - entry.loadedAt < maxAge.toNanos();
+    }
+
+    private Entry serialize(String tag, List<?> items) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(items);
+            boolean compress = compression.enabled() && json.length >= compression.minSize();
+            return new Entry(tag, System.nanoTime(), json, compress ? compress(json) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize list", e);
+        }
+    }
+
+    /**
+     * Compress at the highest level whatever the endpoint's level, since this runs once per version
+     * rather than once per request
+     */
+    private static byte[] compress(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzipOut = ResponseCompression.gzip(out, Deflater.BEST_COMPRESSION)) {
+            gzipOut.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Serialized list of one collection version
+     */
+    private static final class Entry {
+        private final String tag;
+        private final long loadedAt;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Entry(String tag, long loadedAt, byte[] json, byte[] gzip) {
+            this.tag = tag;
+            this.loadedAt = loadedAt;
+            this.json = json;
+            this.gzip = gzip;
+        }
+    }
+}
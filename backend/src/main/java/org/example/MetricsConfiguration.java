@@ -0,0 +1,58 @@
+package org.example;
+
+import com.mongodb.event.CommandListener;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Metrics wiring that configuration alone cannot express
+ * Publishes percentile histograms for request, database and authentication timers,
+ * and times every MongoDB command
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    @ConfigProperty(name = "app.metrics.histogram-prefixes", defaultValue = "http.server.requests,mongodb.driver.commands,auth.")
+    List<String> histogramPrefixes;
+
+    /**
+     * Turn on histogram buckets for the latency timers, so Prometheus can compute any percentile across pods
+     * @return Filter applied to every meter registered afterwards
+     */
+    @Produces
+    @Singleton
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || histogramPrefixes.stream().noneMatch(id.getName()::startsWith)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+
+    /**
+     * Time every MongoDB command, tagged by command name, collection and outcome
+     * The MongoDB client picks up CommandListener beans when it is created
+     * @param registry The application's meter registry
+     * @return Listener recording the mongodb.driver.commands timer
+     */
+    @Produces
+    @Singleton
+    public CommandListener mongoCommandMetrics(MeterRegistry registry) {
+        return new MongoMetricsCommandListener(registry);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a client span for every MongoDB command, as a child of the calling service span
+ * The MongoDB client picks up CommandListener beans when it is created
+ */
+@Singleton
+public class MongoCommandTracing implements CommandListener {
+
+    @Inject
+    Tracer tracer;
+
+    private final Map<Integer, Span> spans = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Span span = tracer.spanBuilder("mongodb." + event.getCommandName())
+            .setSpanKind(SpanKind.CLIENT)
+            .setAttribute("db.system", "mongodb")
+            .setAttribute("db.name", event.getDatabaseName())
+            .setAttribute("db.operation", event.getCommandName())
+            .setAttribute("db.mongodb.collection", collection(event))
+            .startSpan();
+        spans.put(event.getRequestId(), span);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Span span = spans.remove(event.getRequestId());
+        if (span != null) {
+            span.end();
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Span span = spans.remove(event.getRequestId());
+        if (span != null) {
+            span.recordException(event.getThrowable());
+            span.setStatus(StatusCode.ERROR);
+            span.end();
+        }
+    }
+
+    /**
+     * The collection is the value of the command's first field, as in {find: "books", ...}
+     */
+    private static String collection(CommandStartedEvent event) {
+        String command = event.getCommandName();
+        BsonValue value = event.getCommand().get(command);
+        return value != null && value.isString() ? value.asString().getValue() : "";
+    }
+}
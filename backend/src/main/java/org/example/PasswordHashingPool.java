@@ -0,0 +1,279 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.example.util.Argon2PasswordHasher;
+import org.example.util.BCryptPasswordHasher;
+import org.example.util.PasswordHasher;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded executor for password hashing
+ * Keeps CPU-heavy hashing off the request threads so a burst of logins cannot starve other endpoints.
+ * When the queue is full, work is rejected immediately instead of piling up.
+ * New hashes use the configured algorithm (BCrypt or Argon2id); stored hashes of either are verified
+ * by their format. Calibration is opt-in: only with app.auth.hashing.target-verify-time set is the cost
+ * raised on this machine after startup; otherwise the configured costs are used as they are.
+ */
+@ApplicationScoped
+public class PasswordHashingPool {
+
+    private static final Logger LOGGER = Logger.getLogger(PasswordHashingPool.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.auth.hashing.pool-size", defaultValue = "2")
+    int poolSize;
+
+    @ConfigProperty(name = "app.auth.hashing.queue-size", defaultValue = "64")
+    int queueSize;
+
+    @ConfigProperty(name = "app.auth.hashing.retry-after", defaultValue = "1")
+    int retryAfterSeconds;
+
+    @ConfigProperty(name = "app.auth.hashing.algorithm", defaultValue = BCryptPasswordHasher.ALGORITHM)
+    String algorithm;
+
+    @ConfigProperty(name = "app.auth.hashing.target-verify-time")
+    Optional<Duration> targetVerifyTime;
+
+    @ConfigProperty(name = "app.auth.bcrypt.cost", defaultValue = "10")
+    int bcryptCost;
+
+    @ConfigProperty(name = "app.auth.argon2.memory", defaultValue = "19456")
+    int argon2MemoryKib;
+
+    @ConfigProperty(name = "app.auth.argon2.iterations", defaultValue = "2")
+    int argon2Iterations;
+
+    @ConfigProperty(name = "app.auth.argon2.parallelism", defaultValue = "1")
+    int argon2Parallelism;
+
+    private ThreadPoolExecutor executor;
+    private List<PasswordHasher> hashers;
+    private volatile PasswordHasher current;
+    private final Map<String, Timer> hashTimers = new HashMap<>();
+    private final Map<String, Timer> verifyTimers = new HashMap<>();
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        // The configured parameters are the floor; calibration can only raise them
+        hashers = List.of(
+            new BCryptPasswordHasher(bcryptCost),
+            new Argon2PasswordHasher(argon2MemoryKib, argon2Iterations, argon2Parallelism));
+        current = hashers.stream()
+            .filter(hasher -> hasher.algorithm().equals(algorithm))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown app.auth.hashing.algorithm: " + algorithm
+                + " (expected " + BCryptPasswordHasher.ALGORITHM + " or " + Argon2PasswordHasher.ALGORITHM + ")"));
+
+        for (PasswordHasher hasher : hashers) {
+            hashTimers.put(hasher.algorithm(), hashingTimer("hash", hasher.algorithm()));
+            verifyTimers.put(hasher.algorithm(), hashingTimer("verify", hasher.algorithm()));
+        }
+        rejected = Counter.builder("auth.password.hashing.rejected")
+            .description("Hashing requests rejected because the queue was full")
+            .register(registry);
+        Gauge.builder("auth.password.hashing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Hashing requests waiting for a thread")
+            .register(registry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hashing requests being computed")
+            .register(registry);
+
+        LOGGER.infof("Password hashing pool started with %d threads, queue size %d, %s %s",
+            poolSize, queueSize, current.algorithm(), current.parameters());
+
+        targetVerifyTime.ifPresent(target -> executor.execute(() -> calibrate(target)));
+    }
+
+    /**
+     * Raise the cost parameters until verifying takes about the target time on this machine
+     * Runs once on a hashing thread, so startup does not wait for it; until then the configured parameters are used
+     *
+     * @param target Verify time to aim for
+     */
+    void calibrate(Duration target) {
+        long start = System.nanoTime();
+        try {
+            PasswordHasher calibrated = switch (current.algorithm()) {
+                case Argon2PasswordHasher.ALGORITHM ->
+                    Argon2PasswordHasher.calibrate(target, argon2MemoryKib, argon2Iterations, argon2Parallelism);
+                default -> BCryptPasswordHasher.calibrate(target, bcryptCost);
+            };
+            long verifyMillis = PasswordHasher.verifyNanos(calibrated) / 1_000_000;
+            current = calibrated;
+            LOGGER.infof("Password hashing calibrated in %d ms: %s %s, verify takes %d ms (target %d ms)",
+                (System.nanoTime() - start) / 1_000_000, calibrated.algorithm(), calibrated.parameters(),
+                verifyMillis, target.toMillis());
+        } catch (RuntimeException e) {
+            LOGGER.warnf("Password hashing calibration failed, keeping %s: %s", current.parameters(), e.getMessage());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash a password with the configured algorithm and cost
+     *
+     * @param password The plain-text password
+     * @return The encoded hash
+     * @throws SaturatedException if the hashing queue is full
+     */
+    public String hash(String password) {
+        return await(submitHash(password));
+    }
+
+    /**
+     * Check a password against a stored BCrypt or Argon2id hash
+     *
+     * @param password The plain-text password
+     * @param hashed The stored hash
+     * @return true if the password matches
+     * @throws SaturatedException if the hashing queue is full
+     */
+    public boolean verify(String password, String hashed) {
+        return await(submitVerify(password, hashed));
+    }
+
+    /**
+     * Hash a password without blocking the caller
+     *
+     * @param password The plain-text password
+     * @return Future completed with the encoded hash
+     * @throws SaturatedException if the hashing queue is full
+     */
+    public CompletableFuture<String> submitHash(String password) {
+        PasswordHasher hasher = current;
+        return submit(hashTimers.get(hasher.algorithm()), () -> hasher.hash(password));
+    }
+
+    /**
+     * Check a password against a stored hash without blocking the caller
+     *
+     * @param password The plain-text password
+     * @param hashed The stored hash
+     * @return Future completed with true if the password matches
+     * @throws SaturatedException if the hashing queue is full
+     */
+    public CompletableFuture<Boolean> submitVerify(String password, String hashed) {
+        PasswordHasher hasher = hasherFor(hashed);
+        if (hasher == null) {
+            LOGGER.warn("Stored password hash is in an unknown format");
+            return CompletableFuture.completedFuture(false);
+        }
+        return submit(verifyTimers.get(hasher.algorithm()), () -> hasher.verify(password, hashed));
+    }
+
+    /**
+     * Check whether a stored hash uses another algorithm, or weaker parameters, than new hashes
+     *
+     * @param hashed The stored hash
+     * @return true if the hash should be recomputed
+     */
+    public boolean needsRehash(String hashed) {
+        PasswordHasher hasher = current;
+        return !hasher.supports(hashed) || hasher.needsRehash(hashed);
+    }
+
+    /**
+     * @return Seconds a rejected client should wait before retrying
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private PasswordHasher hasherFor(String hashed) {
+        for (PasswordHasher hasher : hashers) {
+            if (hasher.supports(hashed)) {
+                return hasher;
+            }
+        }
+        return null;
+    }
+
+    private Timer hashingTimer(String operation, String algorithm) {
+        return Timer.builder("auth.password.hashing")
+            .description("Time spent computing password hashes")
+            .tag("operation", operation)
+            .tag("algorithm", algorithm)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(timer.recordCallable(task));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new SaturatedException();
+        }
+        return future;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Thrown when the hashing queue is full and the request should be retried later
+     */
+    public static class SaturatedException extends RuntimeException {
+        public SaturatedException() {
+            super("Password hashing capacity exceeded");
+        }
+    }
+}
@@ -2,13 +2,16 @@ package org.example;
 
 import io.quarkus.mongodb.panache.PanacheMongoEntity;
 import io.quarkus.mongodb.panache.common.MongoEntity;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import org.bson.codecs.pojo.annotations.BsonProperty;
 import jakarta.validation.constraints.NotBlank;
 
 /**
  * Represents a poem entity stored in MongoDB
  * This class uses Panache for simplified MongoDB operations
+ * The version changes on every write to the poem and is the source of its entity tag.
  */
+@RegisterForReflection
 @MongoEntity(collection = "poems")
 public class Poem extends PanacheMongoEntity {
     
@@ -24,6 +27,9 @@ public class Poem extends PanacheMongoEntity {
     @BsonProperty("content")
     private String content;
 
+    @BsonProperty("version")
+    private Long version;
+
     /**
      * Default constructor required for MongoDB serialization
      */
@@ -42,6 +48,7 @@ public class Poem extends PanacheMongoEntity {
         this.title = title;
         this.author = author;
         this.content = content;
+        this.version = 0L;
     }
 
     /**
@@ -91,4 +98,21 @@ public class Poem extends PanacheMongoEntity {
     public void setContent(String content) {
         this.content = content;
     }
+
+    /**
+     * Gets the poem's version
+     * Poems stored before versioning was introduced have none and count as version 0
+     * @return The version, or null if never set
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the poem's version
+     * @param version The version to set
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,14 +1,21 @@
 package org.example;
 
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
 /**
  * REST API endpoints for poem operations
@@ -16,6 +23,7 @@ import org.jboss.logging.Logger;
  */
 @Path("/api/poems")
 @Produces(MediaType.APPLICATION_JSON)
+@Compressible
 public class PoemResource {
     
     private static final Logger LOGGER = Logger.getLogger(PoemResource.class);
@@ -23,37 +31,84 @@ public class PoemResource {
     @Inject
     PoemService poemService;
     
+    @Inject
+    CatalogVersions catalogVersions;
+    
+    @Inject
+    ListResponseCache listCache;
+    
     /**
      * Retrieves all poems
-     * @return HTTP response with list of poems
+     * @param request The request, used to evaluate If-None-Match
+     * @param headers The request headers, used to pick a cached gzip copy of the list
+     * @return HTTP response with list of poems, or 304 if unchanged
      */
     @GET
-    public Response getAllPoems() {
-        LOGGER.info("GET request received for all poems");
+    public Response getAllPoems(@Context Request request, @Context HttpHeaders headers) {
+        LOGGER.debug("GET request received for all poems");
+        EntityTag tag = catalogVersions.tag(CatalogVersions.POEMS);
+        Response.ResponseBuilder notModified = ResponseCompression.evaluatePreconditions(request, tag);
+        if (notModified != null) {
+            LOGGER.debug("Poem list not modified");
+            return notModified.build();
+        }
+
+        if (listCache.isEnabled()) {
+            return listCache.ok(CatalogVersions.POEMS, tag, poemService::getAllPoems, headers).build();
+        }
+
         List<Poem> poems = poemService.getAllPoems();
-        LOGGER.debug("Returning " + poems.size() + " poems");
-        return Response.ok(poems).build();
+        LOGGER.debugf("Returning %d poems", poems.size());
+        return Response.ok(poems).tag(tag).build();
+    }
+    
+    /**
+     * Exports all poems as newline-delimited JSON
+     * Poems are written as they are read from the database, one per line
+     * @return Stream of all poems
+     */
+    @GET
+    @Path("/export")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<Poem> exportPoems() {
+        LOGGER.debug("GET request received for poem export");
+        return poemService.exportAllPoems();
     }
     
     /**
      * Retrieves a specific poem by ID
      * @param id The poem's ID
-     * @return HTTP response with the poem or 404 if not found
+     * @param request The request, used to evaluate If-None-Match
+     * @return HTTP response with the poem, 304 if unchanged, or 404 if not found
      */
     @GET
     @Path("/{id}")
-    public Response getPoemById(@PathParam("id") String id) {
-        LOGGER.infof("GET request received for poem with ID: %s", id);
+    public Response getPoemById(@PathParam("id") String id, @Context Request request) {
+        LOGGER.debugf("GET request received for poem with ID: %s", id);
         Poem poem = poemService.getPoemById(id);
             
         if (poem != null) {
+            EntityTag tag = versionTag(poem);
+            Response.ResponseBuilder notModified = ResponseCompression.evaluatePreconditions(request, tag);
+            if (notModified != null) {
+                LOGGER.debug("Poem not modified");
+                return notModified.build();
+            }
             LOGGER.debug("Poem found, returning data");
-            return Response.ok(poem).build();
+            return Response.ok(poem).tag(tag).build();
         } else {
-            LOGGER.infof("Poem with ID %s not found", id);
+            LOGGER.debugf("Poem with ID %s not found", id);
             return Response.status(Response.Status.NOT_FOUND)
                 .entity("{\"error\": \"Poem not found\"}")
                 .build();
         }
     }
+
+    /**
+     * Build the entity tag for a single poem from its version
+     */
+    private static EntityTag versionTag(Poem poem) {
+        return new EntityTag(Long.toString(poem.getVersion() != null ? poem.getVersion() : 0L));
+    }
 }
@@ -1,10 +1,15 @@
 package org.example;
 
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
 
 import java.util.List;
+import java.util.stream.Stream;
 import org.jboss.logging.Logger;
 
 /**
@@ -16,6 +21,9 @@ public class PoemService {
     
     private static final Logger LOGGER = Logger.getLogger(PoemService.class);
 
+    @Inject
+    CatalogVersions catalogVersions;
+
     /**
      * Initialize the database with sample poems if none exist
      * This method runs on application startup
@@ -62,6 +70,7 @@ public class PoemService {
                     "Shadows dance with light.")
             );
             
+            catalogVersions.bump(CatalogVersions.POEMS);
             LOGGER.info("Database initialization complete. Added " + Poem.count() + " poems.");
         }
     }
@@ -70,16 +79,33 @@ public class PoemService {
      * Retrieve all poems from the database
      * @return List of all poems
      */
+    @WithSpan
     public List<Poem> getAllPoems() {
         LOGGER.debug("Fetching all poems");
         return Poem.listAll();
     }
 
+    /**
+     * Stream all poems from a database cursor
+     * Each poem is emitted as soon as it is read and the cursor only advances when
+     * the subscriber requests more, so memory use stays constant for any collection size
+     * @return Stream of all poems, closed on completion, failure or cancellation
+     */
+    public Multi<Poem> exportAllPoems() {
+        LOGGER.debug("Streaming all poems");
+        return Multi.createFrom().<Stream<Poem>, Poem>resource(
+                () -> Poem.streamAll(),
+                poems -> Multi.createFrom().iterable(poems::iterator))
+            .withFinalizer(poems -> { poems.close(); })
+            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
     /**
      * Retrieve a specific poem by ID
      * @param id The poem's ID
      * @return The poem if found, null otherwise
      */
+    @WithSpan
     public Poem getPoemById(String id) {
         LOGGER.debugf("Fetching poem with ID: %s", id);
         return Poem.findById(id);
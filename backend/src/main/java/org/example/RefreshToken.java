@@ -0,0 +1,97 @@
+package org.example;
+
+import io.quarkus.mongodb.panache.PanacheMongoEntity;
+import io.quarkus.mongodb.panache.common.MongoEntity;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.bson.codecs.pojo.annotations.BsonProperty;
+
+import java.time.Instant;
+
+/**
+ * Represents a login session that can be renewed with a refresh token
+ * Only a SHA-256 hash of the current refresh token is stored, and it is replaced on every renewal.
+ * The session keeps just the username; roles are read from the user on every renewal, so they are never stale.
+ * MongoDB removes the document through a TTL index once expiresAt has passed.
+ */
+@RegisterForReflection
+@MongoEntity(collection = "refresh_tokens")
+public class RefreshToken extends PanacheMongoEntity {
+
+    @BsonProperty("tokenHash")
+    private String tokenHash;
+
+    @BsonProperty("previousHash")
+    private String previousHash;
+
+    @BsonProperty("username")
+    private String username;
+
+    @BsonProperty("createdAt")
+    private Instant createdAt;
+
+    @BsonProperty("expiresAt")
+    private Instant expiresAt;
+
+    /**
+     * Default constructor required for MongoDB serialization
+     */
+    public RefreshToken() {
+        // Default constructor required for MongoDB
+    }
+
+    /**
+     * Creates a new session for a user
+     *
+     * @param tokenHash Hash of the session's first refresh token
+     * @param user      The authenticated user
+     * @param createdAt Login time
+     * @param expiresAt Time after which the refresh token is no longer accepted
+     */
+    public RefreshToken(String tokenHash, User user, Instant createdAt, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = user.getUsername();
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and setters
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getPreviousHash() {
+        return previousHash;
+    }
+
+    public void setPreviousHash(String previousHash) {
+        this.previousHash = previousHash;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
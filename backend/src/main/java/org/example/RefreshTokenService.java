@@ -0,0 +1,165 @@
+package org.example;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.bson.conversions.Bson;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for refresh tokens
+ * A refresh token is an opaque random string; each use replaces it with a new one in a single
+ * atomic update, so renewing an access token costs one indexed MongoDB write and no password hash.
+ * Presenting a token that was already replaced means it leaked, and ends the whole session.
+ * Renewals keep a session alive for at most app.auth.refresh-token.max-age after login.
+ */
+@ApplicationScoped
+public class RefreshTokenService {
+
+    private static final Logger LOGGER = Logger.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    @ConfigProperty(name = "app.auth.refresh-token.ttl", defaultValue = "30D")
+    Duration ttl;
+
+    @ConfigProperty(name = "app.auth.refresh-token.max-age", defaultValue = "90D")
+    Duration maxAge;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Create the lookup indexes and the TTL index that removes expired sessions
+     */
+    void onStart(@Observes StartupEvent ev) {
+        MongoCollection<RefreshToken> collection = RefreshToken.mongoCollection();
+        createIndex(collection, Indexes.ascending("tokenHash"), new IndexOptions().unique(true));
+        createIndex(collection, Indexes.ascending("previousHash"), new IndexOptions().sparse(true));
+        createIndex(collection, Indexes.ascending("username"), new IndexOptions());
+        createIndex(collection, Indexes.ascending("expiresAt"), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+    }
+
+    /**
+     * @return A new opaque refresh token
+     */
+    public String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Build the session for a refresh token, without persisting it
+     *
+     * @param user The authenticated user
+     * @param token The session's first refresh token
+     * @return The session document
+     */
+    public RefreshToken newSession(User user, String token) {
+        Instant now = Instant.now();
+        return new RefreshToken(hash(token), user, now, now.plus(ttl));
+    }
+
+    /**
+     * Start a session for a user
+     *
+     * @param user The authenticated user
+     * @return The refresh token to hand to the client
+     */
+    public String issue(User user) {
+        String token = newToken();
+        newSession(user, token).persist();
+        return token;
+    }
+
+    /**
+     * Exchange a refresh token for its replacement
+     * The session's expiry moves forward, so it only ends after the TTL without use,
+     * or once the maximum age since login has passed however often it is renewed
+     *
+     * @param token The refresh token presented by the client
+     * @param replacement The refresh token that replaces it, from newToken()
+     * @return The renewed session, or null if the token is unknown, expired, too old or was already used
+     */
+    public RefreshToken rotate(String token, String replacement) {
+        String tokenHash = hash(token);
+        Instant now = Instant.now();
+        RefreshToken session = RefreshToken.<RefreshToken>mongoCollection().findOneAndUpdate(
+            Filters.and(
+                Filters.eq("tokenHash", tokenHash),
+                Filters.gt("expiresAt", now),
+                Filters.gt("createdAt", now.minus(maxAge))),
+            Updates.combine(
+                Updates.set("tokenHash", hash(replacement)),
+                Updates.set("previousHash", tokenHash),
+                Updates.set("expiresAt", now.plus(ttl))),
+            new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        if (session != null) {
+            return session;
+        }
+
+        RefreshToken reused = RefreshToken.find("previousHash", tokenHash).firstResult();
+        if (reused != null) {
+            reused.delete();
+            LOGGER.warnf("Refresh token reused for user %s, session revoked", reused.getUsername());
+        }
+        return null;
+    }
+
+    /**
+     * End the session of a refresh token
+     *
+     * @param token The session's current refresh token
+     * @return true if a session was ended
+     */
+    public boolean revoke(String token) {
+        return RefreshToken.delete("tokenHash", hash(token)) > 0;
+    }
+
+    /**
+     * End every session of a user, for example after a password change or a lost device
+     *
+     * @param username The user's username
+     * @return Number of sessions ended
+     */
+    public long revokeAll(String username) {
+        return RefreshToken.delete("username", username);
+    }
+
+    /**
+     * Stored form of a refresh token, so a database dump cannot be replayed
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void createIndex(MongoCollection<RefreshToken> collection, Bson keys, IndexOptions options) {
+        try {
+            collection.createIndex(keys, options);
+        } catch (MongoException e) {
+            LOGGER.warnf("Could not create index %s on refresh_tokens: %s", keys, e.getMessage());
+        }
+    }
+}
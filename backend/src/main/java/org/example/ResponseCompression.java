@@ -0,0 +1,251 @@
+package org.example;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compresses response bodies of @Compressible resources for clients that accept it
+ * The body is buffered until it reaches app.compression.min-size, so small responses are sent as they are
+ * and never pay for compression; the gzip level can be set per endpoint path template.
+ * A compressed response gets its own entity tag with a -gzip suffix, since its bytes differ from the
+ * identity response; both tags are accepted in If-None-Match and If-Match.
+ * Responses that already carry a Content-Encoding, such as the cached lists, are left alone.
+ * Streamed responses (NDJSON exports) are written without interceptors and are not compressed.
+ */
+@Provider
+@Compressible
+@Priority(Priorities.ENTITY_CODER)
+public class ResponseCompression implements WriterInterceptor {
+
+    static final String GZIP = "gzip";
+    static final String GZIP_TAG_SUFFIX = "-gzip";
+
+    @Inject
+    CompressionConfig config;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Context
+    HttpHeaders requestHeaders;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (!config.enabled() || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+        addVary(headers);
+        if (!acceptsGzip(requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream target = context.getOutputStream();
+        int level = config.level().getOrDefault(AccessLogFilter.template(resourceInfo), config.defaultLevel());
+        ThresholdGzipStream body = new ThresholdGzipStream(target, headers, config.minSize(), level);
+        context.setOutputStream(body);
+        try {
+            context.proceed();
+            body.finish();
+        } finally {
+            context.setOutputStream(target);
+        }
+    }
+
+    /**
+     * Mark a response as depending on Accept-Encoding, so shared caches keep the variants apart
+     *
+     * @param headers The response headers
+     */
+    static void addVary(MultivaluedMap<String, Object> headers) {
+        Object vary = headers.getFirst(HttpHeaders.VARY);
+        if (vary == null) {
+            headers.putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        } else if (!vary.toString().toLowerCase().contains("accept-encoding")) {
+            headers.putSingle(HttpHeaders.VARY, vary + ", " + HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * Entity tag of the gzip-encoded variant of a response
+     *
+     * @param tag The tag of the identity response
+     * @return The same tag with the -gzip suffix
+     */
+    static EntityTag gzipTag(EntityTag tag) {
+        return new EntityTag(tag.getValue() + GZIP_TAG_SUFFIX, tag.isWeak());
+    }
+
+    /**
+     * Evaluate the request preconditions against both encodings of a response
+     * A client holding the gzip variant sends its -gzip tag back, which must match as well.
+     *
+     * @param request The request
+     * @param tag The tag of the identity response
+     * @return Response builder to return instead, such as 304 with the matching tag, or null to proceed
+     */
+    static Response.ResponseBuilder evaluatePreconditions(Request request, EntityTag tag) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        return notModified != null ? notModified : request.evaluatePreconditions(gzipTag(tag));
+    }
+
+    /**
+     * Suffix the entity tag header set by the resource, held as an EntityTag or as its header text
+     */
+    private static void tagGzip(MultivaluedMap<String, Object> headers) {
+        Object tag = headers.getFirst(HttpHeaders.ETAG);
+        if (tag instanceof EntityTag entityTag) {
+            headers.putSingle(HttpHeaders.ETAG, gzipTag(entityTag));
+        } else if (tag != null && tag.toString().endsWith("\"")) {
+            String value = tag.toString();
+            headers.putSingle(HttpHeaders.ETAG, value.substring(0, value.length() - 1) + GZIP_TAG_SUFFIX + "\"");
+        }
+    }
+
+    /**
+     * Open a gzip stream at a given level
+     *
+     * @param out Stream receiving the compressed bytes
+     * @param level Gzip level from 1 (fastest) to 9 (smallest)
+     * @return Stream compressing into out
+     */
+    static GZIPOutputStream gzip(OutputStream out, int level) throws IOException {
+        return new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    /**
+     * Check whether an Accept-Encoding header allows gzip
+     * An explicit gzip entry wins over *, so "gzip;q=0, *" refuses it
+     *
+     * @param acceptEncoding The header value, or null when absent
+     * @return true if gzip, or failing that *, is listed with a non-zero quality
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            int separator = coding.indexOf(';');
+            String name = (separator < 0 ? coding : coding.substring(0, separator)).trim();
+            boolean accepted = separator < 0 || quality(coding.substring(separator + 1)) > 0;
+            if (name.equalsIgnoreCase(GZIP)) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * Quality value from the parameters of one Accept-Encoding entry, 1 when absent and 0 when malformed
+     */
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Holds back the first bytes of a body and switches to gzip once they reach the threshold
+     * Nothing reaches the response before that decision, so Content-Encoding can still be set.
+     */
+    private static final class ThresholdGzipStream extends OutputStream {
+        private final OutputStream target;
+        private final MultivaluedMap<String, Object> headers;
+        private final int minSize;
+        private final int level;
+        private ByteArrayOutputStream pending;
+        private OutputStream out;
+
+        private ThresholdGzipStream(OutputStream target, MultivaluedMap<String, Object> headers, int minSize, int level) {
+            this.target = target;
+            this.headers = headers;
+            this.minSize = minSize;
+            this.level = level;
+            this.pending = new ByteArrayOutputStream(Math.min(minSize, 8192));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out != null) {
+                out.write(b, off, len);
+                return;
+            }
+            pending.write(b, off, len);
+            if (pending.size() >= minSize) {
+                headers.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                tagGzip(headers);
+                out = gzip(target, level);
+                pending.writeTo(out);
+                pending = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Flushing the held-back bytes would commit the headers before the size is known
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        /**
+         * Write out what is held back, or the gzip trailer; the target stream stays open for the server
+         */
+        void finish() throws IOException {
+            if (pending != null) {
+                pending.writeTo(target);
+                pending = null;
+                out = target;
+            } else if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+                out = target;
+            }
+        }
+    }
+}
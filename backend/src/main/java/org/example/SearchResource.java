@@ -0,0 +1,101 @@
+package org.example;
+
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.annotation.security.PermitAll;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.example.dto.SearchResults;
+import org.example.dto.Suggestion;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * REST API endpoint for full-text search
+ * Searches book titles, authors and descriptions and poem titles, authors and content,
+ * and suggests book titles and authors while the user types
+ */
+@Path("/api/search")
+@Produces(MediaType.APPLICATION_JSON)
+public class SearchResource {
+
+    private static final Logger LOGGER = Logger.getLogger(SearchResource.class);
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_OFFSET = MAX_LIMIT * 100;
+
+    @Inject
+    SearchService searchService;
+
+    @Inject
+    SuggestService suggestService;
+
+    /**
+     * Searches books and poems
+     * @param query The search text
+     * @param type "book" or "poem" to restrict results, or absent for both
+     * @param offset Number of hits to skip
+     * @param limit Maximum number of hits to return
+     * @return HTTP response with the ranked hits and the total number of matches
+     */
+    @GET
+    @PermitAll
+    public Response search(@QueryParam("q") String query,
+                           @QueryParam("type") String type,
+                           @QueryParam("offset") @DefaultValue("0") int offset,
+                           @QueryParam("limit") @DefaultValue("20") int limit) {
+        LOGGER.debugf("GET request received for search: %s", query);
+        if (query == null || query.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Query parameter q is required\"}")
+                .build();
+        }
+        if (type != null && !type.equals(SearchService.TYPE_BOOK) && !type.equals(SearchService.TYPE_POEM)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"type must be book or poem\"}")
+                .build();
+        }
+        if (offset < 0 || offset > MAX_OFFSET || limit < 1 || limit > MAX_LIMIT) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"offset must be between 0 and " + MAX_OFFSET + " and limit between 1 and " + MAX_LIMIT + "\"}")
+                .build();
+        }
+
+        SearchResults results = searchService.search(query, type, offset, limit);
+        return Response.ok(results).build();
+    }
+
+    /**
+     * Suggests book titles and authors starting with the typed text
+     * Served from memory on the I/O thread, as it is called on every keystroke
+     * @param query The text typed so far
+     * @param limit Maximum number of suggestions
+     * @return HTTP response with the suggestions, most popular first
+     */
+    @GET
+    @Path("/suggest")
+    @PermitAll
+    @NonBlocking
+    public Response suggest(@QueryParam("q") String query,
+                            @QueryParam("limit") @DefaultValue("10") int limit) {
+        LOGGER.debugf("GET request received for suggestions: %s", query);
+        if (query == null || query.isBlank()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Query parameter q is required\"}")
+                .build();
+        }
+        if (limit < 1 || limit > suggestService.getMaxResults()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"limit must be between 1 and " + suggestService.getMaxResults() + "\"}")
+                .build();
+        }
+
+        List<Suggestion> suggestions = suggestService.suggest(query, limit);
+        return Response.ok(suggestions).build();
+    }
+}
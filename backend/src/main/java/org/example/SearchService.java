@@ -0,0 +1,123 @@
+package org.example;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.example.dto.SearchHit;
+import org.example.dto.SearchResults;
+import org.example.util.InvertedIndex;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Service class for full-text search over books and poems
+ * Keeps an in-memory inverted index built at startup and updated by the book write paths
+ */
+@ApplicationScoped
+public class SearchService {
+
+    private static final Logger LOGGER = Logger.getLogger(SearchService.class);
+
+    public static final String TYPE_BOOK = "book";
+    public static final String TYPE_POEM = "poem";
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<String, SearchHit> summaries = new ConcurrentHashMap<>();
+
+    @ConfigProperty(name = "app.search.title-weight", defaultValue = "2.0")
+    float titleWeight;
+
+    @ConfigProperty(name = "app.search.author-weight", defaultValue = "1.5")
+    float authorWeight;
+
+    @ConfigProperty(name = "app.search.text-weight", defaultValue = "1.0")
+    float textWeight;
+
+    /**
+     * Build the search index from both collections
+     * Runs after the sample data has been seeded
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION + 1000) StartupEvent ev) {
+        long start = System.nanoTime();
+        try (Stream<Book> books = Book.streamAll()) {
+            books.forEach(this::indexBook);
+        }
+        try (Stream<Poem> poems = Poem.streamAll()) {
+            poems.forEach(this::indexPoem);
+        }
+        LOGGER.infof("Search index built with %d documents in %d ms",
+            index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Add or replace a book in the index
+     * @param book The book to index
+     */
+    public void indexBook(Book book) {
+        String key = key(TYPE_BOOK, book.id.toHexString());
+        index.put(key, List.of(
+            new InvertedIndex.Field(book.getTitle(), titleWeight),
+            new InvertedIndex.Field(book.getAuthor(), authorWeight),
+            new InvertedIndex.Field(book.getDescription(), textWeight)));
+        summaries.put(key, new SearchHit(TYPE_BOOK, book.id.toHexString(), book.getTitle(), book.getAuthor(), 0));
+    }
+
+    /**
+     * Remove a book from the index
+     * @param id The book's ID
+     */
+    public void removeBook(String id) {
+        String key = key(TYPE_BOOK, id);
+        index.remove(key);
+        summaries.remove(key);
+    }
+
+    /**
+     * Add or replace a poem in the index
+     * @param poem The poem to index
+     */
+    public void indexPoem(Poem poem) {
+        String key = key(TYPE_POEM, poem.id.toHexString());
+        index.put(key, List.of(
+            new InvertedIndex.Field(poem.getTitle(), titleWeight),
+            new InvertedIndex.Field(poem.getAuthor(), authorWeight),
+            new InvertedIndex.Field(poem.getContent(), textWeight)));
+        summaries.put(key, new SearchHit(TYPE_POEM, poem.id.toHexString(), poem.getTitle(), poem.getAuthor(), 0));
+    }
+
+    /**
+     * Search books and poems, best matches first
+     * @param query Free text query; the last word also matches as a prefix
+     * @param type "book" or "poem" to restrict the results, or null for both
+     * @param offset Number of hits to skip
+     * @param limit Maximum number of hits to return
+     * @return The page of hits and the total number of matches
+     */
+    public SearchResults search(String query, String type, int offset, int limit) {
+        LOGGER.debugf("Searching for '%s' (type: %s)", query, type);
+        Predicate<String> filter = type == null ? key -> true : key -> key.startsWith(type + ":");
+        InvertedIndex.Result result = index.search(query, offset, limit, filter);
+
+        List<SearchHit> hits = new ArrayList<>(result.getHits().size());
+        for (InvertedIndex.Hit hit : result.getHits()) {
+            SearchHit summary = summaries.get(hit.getKey());
+            if (summary != null) {
+                hits.add(new SearchHit(summary.getType(), summary.getId(), summary.getTitle(), summary.getAuthor(), hit.getScore()));
+            }
+        }
+        return new SearchResults(result.getTotal(), hits);
+    }
+
+    private static String key(String type, String id) {
+        return type + ":" + id;
+    }
+}
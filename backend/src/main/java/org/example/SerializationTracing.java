@@ -0,0 +1,35 @@
+package org.example;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+
+/**
+ * Records a span around writing each response body
+ * Separates JSON serialization time from the service and database time in a request's trace
+ */
+@Provider
+public class SerializationTracing implements WriterInterceptor {
+
+    @Inject
+    Tracer tracer;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        Span span = tracer.spanBuilder("serialize " + context.getType().getSimpleName())
+            .setAttribute("http.response.content_type", String.valueOf(context.getMediaType()))
+            .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            context.proceed();
+        } finally {
+            span.end();
+        }
+    }
+}
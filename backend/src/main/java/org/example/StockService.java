@@ -0,0 +1,264 @@
+package org.example;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response.Status;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for stock changes on books
+ * Every change is a single conditional $inc, so concurrent checkouts can never oversell.
+ * Books listed in app.stock.buffer.book-ids reserve from an in-memory allowance claimed
+ * from MongoDB in chunks, so a flash sale does not serialise on one document.
+ * A checkout bumps only the book's own version and evicts it from the book cache. The catalog
+ * tag is left alone, so checkouts of different titles never write to a shared document; the book
+ * list picks up new quantities with the next catalog change or list cache reload.
+ */
+@ApplicationScoped
+public class StockService {
+
+    private static final Logger LOGGER = Logger.getLogger(StockService.class);
+
+    @Inject
+    CatalogVersions catalogVersions;
+
+    @Inject
+    @CacheName(BookService.BOOK_CACHE)
+    Cache bookCache;
+
+    @ConfigProperty(name = "app.stock.buffer.book-ids")
+    Optional<List<String>> bufferedBookIds;
+
+    @ConfigProperty(name = "app.stock.buffer.chunk-size", defaultValue = "50")
+    int chunkSize;
+
+    @ConfigProperty(name = "app.stock.buffer.stripes", defaultValue = "8")
+    int stripeCount;
+
+    private final Map<String, Allowance> allowances = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        for (String id : bufferedBookIds.orElse(List.of())) {
+            allowances.put(id, new Allowance(stripeCount));
+        }
+        if (!allowances.isEmpty()) {
+            LOGGER.infof("Buffering reservations for %d books in chunks of %d", allowances.size(), chunkSize);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    /**
+     * Move units from the available quantity to the reserved count
+     * @param id The book's ID
+     * @param units Number of units to reserve
+     * @throws NotFoundException if the book is not found
+     * @throws ClientErrorException with status 409 if fewer units are available
+     */
+    public void reserve(String id, int units) {
+        Allowance allowance = allowances.get(id);
+        if (allowance != null) {
+            reserveBuffered(id, units, allowance);
+            return;
+        }
+        apply(id, Filters.gte("quantity", units),
+            Updates.combine(Updates.inc("quantity", -units), Updates.inc("reserved", units)),
+            "Not enough stock to reserve " + units + " units");
+    }
+
+    /**
+     * Move reserved units back to the available quantity
+     * @param id The book's ID
+     * @param units Number of units to release
+     * @throws NotFoundException if the book is not found
+     * @throws ClientErrorException with status 409 if fewer units are reserved
+     */
+    public void release(String id, int units) {
+        apply(id, Filters.gte("reserved", units),
+            Updates.combine(Updates.inc("quantity", units), Updates.inc("reserved", -units)),
+            "Fewer than " + units + " units are reserved");
+    }
+
+    /**
+     * Remove sold units from stock
+     * @param id The book's ID
+     * @param units Number of units sold
+     * @param fromReserved Whether the units were reserved beforehand, rather than taken from the available quantity
+     * @throws NotFoundException if the book is not found
+     * @throws ClientErrorException with status 409 if fewer units are available or reserved
+     */
+    public void decrement(String id, int units, boolean fromReserved) {
+        String field = fromReserved ? "reserved" : "quantity";
+        apply(id, Filters.gte(field, units), Updates.inc(field, -units),
+            fromReserved ? "Fewer than " + units + " units are reserved" : "Not enough stock to sell " + units + " units");
+    }
+
+    /**
+     * Change the available quantity after a delivery or a stock count
+     * Unlike the checkout operations this is an edit to the catalog, so the book list tag changes too
+     * @param id The book's ID
+     * @param units Units to add, or a negative number of units to remove
+     * @throws NotFoundException if the book is not found
+     * @throws ClientErrorException with status 409 if fewer units are available than are removed
+     */
+    public void adjust(String id, int units) {
+        apply(id, Filters.gte("quantity", Math.max(0, -units)), Updates.inc("quantity", units),
+            "Not enough stock to remove " + -units + " units");
+        catalogVersions.bump(CatalogVersions.BOOKS);
+    }
+
+    /**
+     * Return the unused allowance of buffered books to the available quantity
+     * Allowance left on a pod that stops without flushing stays counted as reserved
+     */
+    @Scheduled(every = "{app.stock.buffer.flush-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        for (Map.Entry<String, Allowance> entry : allowances.entrySet()) {
+            long unused = entry.getValue().drain();
+            if (unused == 0) {
+                continue;
+            }
+            LOGGER.debugf("Returning %d buffered units of book %s", unused, entry.getKey());
+            if (!tryApply(entry.getKey(), Filters.gte("reserved", unused),
+                    Updates.combine(Updates.inc("quantity", unused), Updates.inc("reserved", -unused)))) {
+                LOGGER.warnf("Could not return %d buffered units of book %s", unused, entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Take units from the calling thread's stripe, claiming a new chunk from MongoDB when it runs out
+     */
+    private void reserveBuffered(String id, int units, Allowance allowance) {
+        int index = allowance.index();
+        AtomicLong stripe = allowance.stripes[index];
+        if (take(stripe, units)) {
+            return;
+        }
+        ReentrantLock lock = allowance.locks[index];
+        lock.lock();
+        try {
+            if (take(stripe, units)) {
+                return;
+            }
+            int claim = Math.max(chunkSize, units);
+            if (tryApply(id, Filters.gte("quantity", claim),
+                    Updates.combine(Updates.inc("quantity", -claim), Updates.inc("reserved", claim)))) {
+                stripe.addAndGet(claim - units);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Not enough stock for a full chunk: borrow from other stripes before taking the exact amount
+        for (AtomicLong other : allowance.stripes) {
+            if (take(other, units)) {
+                return;
+            }
+        }
+        Bson reserveUnits = Updates.combine(Updates.inc("quantity", -units), Updates.inc("reserved", units));
+        if (tryApply(id, Filters.gte("quantity", units), reserveUnits)) {
+            return;
+        }
+        // The last units may sit in a chunk another stripe is still claiming; wait for each claim before giving up
+        for (int i = 0; i < allowance.stripes.length; i++) {
+            allowance.locks[i].lock();
+            try {
+                if (take(allowance.stripes[i], units)) {
+                    return;
+                }
+            } finally {
+                allowance.locks[i].unlock();
+            }
+        }
+        apply(id, Filters.gte("quantity", units), reserveUnits, "Not enough stock to reserve " + units + " units");
+    }
+
+    private static boolean take(AtomicLong stripe, int units) {
+        long available;
+        do {
+            available = stripe.get();
+            if (available < units) {
+                return false;
+            }
+        } while (!stripe.compareAndSet(available, available - units));
+        return true;
+    }
+
+    /**
+     * Apply a guarded stock update, telling a missing book apart from a failed guard
+     */
+    private void apply(String id, Bson guard, Bson update, String conflictMessage) {
+        if (!tryApply(id, guard, update)) {
+            if (Book.count("_id", new ObjectId(id)) == 0) {
+                throw new NotFoundException("Book with ID " + id + " not found");
+            }
+            throw new ClientErrorException(conflictMessage, Status.CONFLICT);
+        }
+    }
+
+    private boolean tryApply(String id, Bson guard, Bson update) {
+        MongoCollection<Book> collection = Book.mongoCollection();
+        long modified = collection.updateOne(
+            Filters.and(Filters.eq("_id", new ObjectId(id)), guard),
+            Updates.combine(update, Updates.inc("version", 1L))).getModifiedCount();
+        if (modified == 0) {
+            return false;
+        }
+        bookCache.invalidate(id).await().indefinitely();
+        return true;
+    }
+
+    /**
+     * Units claimed from MongoDB for one book, spread over stripes to avoid a single contended counter
+     */
+    private static final class Allowance {
+        private final AtomicLong[] stripes;
+        private final ReentrantLock[] locks;
+
+        Allowance(int count) {
+            stripes = new AtomicLong[count];
+            locks = new ReentrantLock[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new AtomicLong();
+                locks[i] = new ReentrantLock();
+            }
+        }
+
+        int index() {
+            return (int) (Thread.currentThread().threadId() % stripes.length);
+        }
+
+        long drain() {
+            long total = 0;
+            for (AtomicLong stripe : stripes) {
+                total += stripe.getAndSet(0);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package org.example;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.example.dto.Suggestion;
+import org.example.util.InvertedIndex;
+import org.example.util.SuggestionTrie;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Service class for typeahead suggestions over book titles and authors
+ * Titles are ranked by how often the book is viewed; authors by the views of all their books.
+ * Views are counted with a per-book atomic update and folded into the rankings on a schedule,
+ * so a busy book page never contends with suggestion lookups.
+ */
+@ApplicationScoped
+public class SuggestService {
+
+    private static final Logger LOGGER = Logger.getLogger(SuggestService.class);
+
+    public static final String TYPE_TITLE = "title";
+    public static final String TYPE_AUTHOR = "author";
+
+    private SuggestionTrie<Target> trie;
+    private final Map<String, IndexedBook> books = new HashMap<>();
+    private final Map<String, IndexedAuthor> authors = new HashMap<>();
+    private final Map<String, Long> pendingViews = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @ConfigProperty(name = "app.suggest.max-results", defaultValue = "10")
+    int maxResults;
+
+    @ConfigProperty(name = "app.suggest.max-words", defaultValue = "8")
+    int maxWords;
+
+    @PostConstruct
+    void init() {
+        trie = new SuggestionTrie<>(maxResults,
+            Comparator.comparing((Target target) -> target.text, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(target -> target.key));
+    }
+
+    /**
+     * Build the suggestion trie from the books collection
+     * Runs after the sample data has been seeded
+     */
+    void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION + 1000) StartupEvent ev) {
+        long start = System.nanoTime();
+        try (Stream<Book> all = Book.streamAll()) {
+            all.forEach(this::indexBook);
+        }
+        LOGGER.infof("Suggestion trie built with %d entries in %d ms",
+            trie.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Add or replace a book's title and author
+     * @param book The book to index
+     */
+    public void indexBook(Book book) {
+        lock.lock();
+        try {
+            index(book);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(Book book) {
+        String id = book.id.toHexString();
+        IndexedBook previous = books.get(id);
+        long views = previous != null ? previous.views : 0;
+        if (previous != null) {
+            detachAuthor(id, previous);
+        }
+
+        IndexedBook indexed = new IndexedBook(book.getTitle(), normalize(book.getAuthor()), views);
+        books.put(id, indexed);
+        Target title = new Target(TYPE_TITLE, id, book.getTitle(), id);
+        trie.put(title, keys(book.getTitle()), views);
+
+        if (!indexed.author.isEmpty()) {
+            IndexedAuthor author = authors.computeIfAbsent(indexed.author, name -> new IndexedAuthor(book.getAuthor()));
+            author.bookIds.add(id);
+            author.views += views;
+            trie.put(new Target(TYPE_AUTHOR, indexed.author, author.text, null), keys(author.text), author.score());
+        }
+    }
+
+    /**
+     * Remove a book's title, and its author when no other book references it
+     * @param id The book's ID
+     */
+    public void removeBook(String id) {
+        lock.lock();
+        try {
+            IndexedBook previous = books.remove(id);
+            pendingViews.remove(id);
+            if (previous == null) {
+                return;
+            }
+            trie.remove(new Target(TYPE_TITLE, id, previous.title, id));
+            detachAuthor(id, previous);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a view of a book towards its popularity
+     * Cheap enough to call on every read; the count is applied by the next refresh
+     * @param id The book's ID
+     */
+    public void recordView(String id) {
+        // merge and remove are atomic per key, so a view counted during a refresh is kept for the next one
+        pendingViews.merge(id, 1L, Long::sum);
+    }
+
+    /**
+     * Fold the views counted since the last refresh into the rankings
+     */
+    @Scheduled(every = "{app.suggest.popularity-refresh}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshPopularity() {
+        if (pendingViews.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            applyViews();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyViews() {
+        Set<String> touchedAuthors = new HashSet<>();
+        for (String id : new ArrayList<>(pendingViews.keySet())) {
+            Long pending = pendingViews.remove(id);
+            long views = pending != null ? pending : 0;
+            IndexedBook book = books.get(id);
+            if (book == null || views == 0) {
+                continue;
+            }
+            book.views += views;
+            trie.setScore(new Target(TYPE_TITLE, id, book.title, id), book.views);
+            IndexedAuthor author = authors.get(book.author);
+            if (author != null) {
+                author.views += views;
+                touchedAuthors.add(book.author);
+            }
+        }
+        for (String name : touchedAuthors) {
+            IndexedAuthor author = authors.get(name);
+            trie.setScore(new Target(TYPE_AUTHOR, name, author.text, null), author.score());
+        }
+        LOGGER.debugf("Suggestion popularity refreshed for %d authors", touchedAuthors.size());
+    }
+
+    /**
+     * Suggest titles and authors starting with the typed text
+     * Any word of a title or author can start the match, so "hob" finds "The Hobbit"
+     * @param prefix The text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, most popular first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<Target> targets = trie.suggest(normalized, limit);
+        List<Suggestion> suggestions = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            suggestions.add(new Suggestion(target.type, target.text, target.id));
+        }
+        return suggestions;
+    }
+
+    /**
+     * @return Maximum number of suggestions a lookup can return
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    private void detachAuthor(String id, IndexedBook book) {
+        IndexedAuthor author = authors.get(book.author);
+        if (author == null) {
+            return;
+        }
+        author.bookIds.remove(id);
+        author.views -= book.views;
+        Target target = new Target(TYPE_AUTHOR, book.author, author.text, null);
+        if (author.bookIds.isEmpty()) {
+            authors.remove(book.author);
+            trie.remove(target);
+        } else {
+            trie.setScore(target, author.score());
+        }
+    }
+
+    /**
+     * Keys of a text: the whole normalised text, then the text from each following word
+     */
+    private List<String> keys(String text) {
+        List<String> words = InvertedIndex.tokenize(text);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < words.size() && i < maxWords; i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", InvertedIndex.tokenize(text));
+    }
+
+    /**
+     * Suggested value; equal when type and key match, whatever the displayed text
+     */
+    private static final class Target {
+        private final String type;
+        private final String key;
+        private final String text;
+        private final String id;
+
+        Target(String type, String key, String text, String id) {
+            this.type = type;
+            this.key = key;
+            this.text = text;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Target)) {
+                return false;
+            }
+            Target other = (Target) o;
+            return type.equals(other.type) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, key);
+        }
+    }
+
+    private static final class IndexedBook {
+        private final String title;
+        private final String author;
+        private long views;
+
+        IndexedBook(String title, String author, long views) {
+            this.title = title;
+            this.author = author;
+            this.views = views;
+        }
+    }
+
+    private static final class IndexedAuthor {
+        private final String text;
+        private final Set<String> bookIds = new HashSet<>();
+        private long views;
+
+        IndexedAuthor(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Views of all the author's books, with each book counting once so prolific authors rank first at startup
+         */
+        long score() {
+            return views + bookIds.size();
+        }
+    }
+}
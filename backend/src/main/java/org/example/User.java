@@ -2,6 +2,7 @@ package org.example;
 
 import io.quarkus.mongodb.panache.PanacheMongoEntity;
 import io.quarkus.mongodb.panache.common.MongoEntity;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import org.bson.codecs.pojo.annotations.BsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Email;
@@ -13,6 +14,7 @@ import java.util.List;
  * Represents a user entity stored in MongoDB
  * This class uses Panache for simplified MongoDB operations
  */
+@RegisterForReflection
 @MongoEntity(collection = "users")
 public class User extends PanacheMongoEntity {
     
@@ -1,14 +1,19 @@
 package org.example.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
 import java.util.List;
 
 /**
  * Data Transfer Object for authentication responses
- * Contains JWT token and user information
+ * Contains the JWT access token, the refresh token that renews it, and user information
  */
+@RegisterForReflection
 public class AuthResponse {
     
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private String username;
     private List<String> roles;
     private String message;
@@ -34,6 +39,25 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    /**
+     * @return Seconds until the access token expires
+     */
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
     public String getUsername() {
         return username;
     }
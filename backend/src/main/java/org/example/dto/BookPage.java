@@ -0,0 +1,43 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a single page of the book catalog
+ * Contains the page items and the cursor to request the next page
+ */
+@RegisterForReflection
+public class BookPage {
+
+    private List<Object> items;
+    private String next;
+
+    // Default constructor
+    public BookPage() {
+    }
+
+    // Constructor with all fields
+    public BookPage(List<Object> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Getters and setters
+    public List<Object> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Object> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.ws.rs.QueryParam;
+
+import java.math.BigDecimal;
+
+/**
+ * Query parameters for filtering and sorting the book catalog
+ * Each parameter that is set becomes a condition of the MongoDB query
+ */
+@RegisterForReflection
+public class BookQuery {
+
+    @QueryParam("category")
+    private String category;
+
+    @QueryParam("author")
+    private String author;
+
+    @QueryParam("minPrice")
+    private BigDecimal minPrice;
+
+    @QueryParam("maxPrice")
+    private BigDecimal maxPrice;
+
+    @QueryParam("publishedFrom")
+    private String publishedFrom;
+
+    @QueryParam("publishedTo")
+    private String publishedTo;
+
+    @QueryParam("sort")
+    private String sort;
+
+    // Default constructor
+    public BookQuery() {
+    }
+
+    /**
+     * Checks whether no filter or sort was requested
+     * @return true if all parameters are absent
+     */
+    public boolean isEmpty() {
+        return category == null && author == null && minPrice == null && maxPrice == null
+            && publishedFrom == null && publishedTo == null && sort == null;
+    }
+
+    // Getters and setters
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public String getPublishedFrom() {
+        return publishedFrom;
+    }
+
+    public void setPublishedFrom(String publishedFrom) {
+        this.publishedFrom = publishedFrom;
+    }
+
+    public String getPublishedTo() {
+        return publishedTo;
+    }
+
+    public void setPublishedTo(String publishedTo) {
+        this.publishedTo = publishedTo;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of a bulk book import
+ * Contains the row counts and the errors of rejected rows
+ */
+@RegisterForReflection
+public class BulkImportResult {
+
+    private long received;
+    private long inserted;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    // Default constructor
+    public BulkImportResult() {
+    }
+
+    // Getters and setters
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Error for a single row of the import, identified by its zero-based position in the input
+     */
+    @RegisterForReflection
+    public static class RowError {
+
+        private long row;
+        private String message;
+
+        // Default constructor
+        public RowError() {
+        }
+
+        // Constructor with all fields
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package org.example.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.validation.constraints.NotBlank;
 
 /**
  * Data Transfer Object for login requests
  */
+@RegisterForReflection
 public class LoginRequest {
     
     @NotBlank(message = "Username cannot be blank")
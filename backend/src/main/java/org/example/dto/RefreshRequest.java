@@ -0,0 +1,32 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Data Transfer Object for refresh and logout requests
+ */
+@RegisterForReflection
+public class RefreshRequest {
+
+    @NotBlank(message = "Refresh token cannot be blank")
+    private String refreshToken;
+
+    // Default constructor
+    public RefreshRequest() {
+    }
+
+    // Constructor
+    public RefreshRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
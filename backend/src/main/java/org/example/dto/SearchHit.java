@@ -0,0 +1,71 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Data Transfer Object for a single search result
+ * Identifies the matching book or poem and its relevance score
+ */
+@RegisterForReflection
+public class SearchHit {
+
+    private String type;
+    private String id;
+    private String title;
+    private String author;
+    private double score;
+
+    // Default constructor
+    public SearchHit() {
+    }
+
+    // Constructor with all fields
+    public SearchHit(String type, String id, String title, String author, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.score = score;
+    }
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
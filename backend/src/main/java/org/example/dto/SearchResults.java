@@ -0,0 +1,43 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of search results
+ * Contains the hits of the requested page and the total number of matches
+ */
+@RegisterForReflection
+public class SearchResults {
+
+    private int total;
+    private List<SearchHit> hits;
+
+    // Default constructor
+    public SearchResults() {
+    }
+
+    // Constructor with all fields
+    public SearchResults(int total, List<SearchHit> hits) {
+        this.total = total;
+        this.hits = hits;
+    }
+
+    // Getters and setters
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHit> hits) {
+        this.hits = hits;
+    }
+}
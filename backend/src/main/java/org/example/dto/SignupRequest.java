@@ -1,5 +1,6 @@
 package org.example.dto;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -7,6 +8,7 @@ import jakarta.validation.constraints.Size;
 /**
  * Data Transfer Object for user registration requests
  */
+@RegisterForReflection
 public class SignupRequest {
     
     @NotBlank(message = "Username cannot be blank")
@@ -0,0 +1,51 @@
+package org.example.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Data Transfer Object for a typeahead suggestion
+ * Either a book title, with the book's ID, or an author name
+ */
+@RegisterForReflection
+public class Suggestion {
+
+    private String type;
+    private String text;
+    private String id;
+
+    // Default constructor
+    public Suggestion() {
+    }
+
+    // Constructor with all fields
+    public Suggestion(String type, String text, String id) {
+        this.type = type;
+        this.text = text;
+        this.id = id;
+    }
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
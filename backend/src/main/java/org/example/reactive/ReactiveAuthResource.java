@@ -0,0 +1,57 @@
+package org.example.reactive;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.PermitAll;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.example.dto.LoginRequest;
+import org.example.dto.SignupRequest;
+import org.jboss.logging.Logger;
+
+/**
+ * Reactive REST API endpoints for user authentication operations
+ * Mirrors /api/auth without holding a worker thread while waiting on MongoDB
+ */
+@Path("/api/v2/auth")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@IfBuildProperty(name = "app.api.v2.enabled", stringValue = "true", enableIfMissing = true)
+public class ReactiveAuthResource {
+
+    private static final Logger LOGGER = Logger.getLogger(ReactiveAuthResource.class);
+
+    @Inject
+    ReactiveAuthService authService;
+
+    /**
+     * Endpoint for user registration
+     *
+     * @param request User signup request
+     * @return HTTP response with auth token or error
+     */
+    @POST
+    @Path("/signup")
+    @PermitAll
+    public Uni<Response> registerUser(@Valid SignupRequest request) {
+        LOGGER.debug("New user signup request received (v2)");
+        return authService.register(request);
+    }
+
+    /**
+     * Endpoint for user login
+     *
+     * @param request User login request
+     * @return HTTP response with auth token or error
+     */
+    @POST
+    @Path("/login")
+    @PermitAll
+    public Uni<Response> loginUser(@Valid LoginRequest request) {
+        LOGGER.debug("User login request received (v2)");
+        return authService.login(request);
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.reactive;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.example.AuthService;
+import org.example.CredentialCache;
+import org.example.PasswordHashingPool;
+import org.example.RefreshTokenService;
+import org.example.User;
+import org.example.dto.AuthResponse;
+import org.example.dto.LoginRequest;
+import org.example.dto.SignupRequest;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reactive variant of the authentication operations
+ * MongoDB access never blocks, and the CPU-bound BCrypt work runs on the password hashing pool
+ */
+@ApplicationScoped
+public class ReactiveAuthService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReactiveAuthService.class);
+
+    @Inject
+    ReactiveUserRepository userRepository;
+
+    @Inject
+    AuthService authService;
+
+    @Inject
+    PasswordHashingPool hashingPool;
+
+    @Inject
+    CredentialCache credentialCache;
+
+    @Inject
+    RefreshTokenService refreshTokens;
+
+    @Inject
+    ReactiveRefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * Process user registration request
+     *
+     * @param request The signup request
+     * @return Response with authentication token or error message
+     */
+    public Uni<Response> register(SignupRequest request) {
+        LOGGER.debugf("Processing registration for username: %s (v2)", request.getUsername());
+
+        return existingAccount(request)
+            .chain(conflict -> conflict != null ? Uni.createFrom().item(conflict) : createUser(request));
+    }
+
+    /**
+     * Check whether the username or email of a signup is taken
+     *
+     * @return A 409 response naming the taken field, or null if both are free
+     */
+    private Uni<Response> existingAccount(SignupRequest request) {
+        return userRepository.findByUsername(request.getUsername())
+            .chain(existingUser -> {
+                if (existingUser != null) {
+                    LOGGER.infof("Registration failed: Username '%s' already exists", request.getUsername());
+                    return Uni.createFrom().item(conflict("Username already exists"));
+                }
+                return userRepository.findByEmail(request.getEmail())
+                    .map(existingEmail -> {
+                        if (existingEmail != null) {
+                            LOGGER.infof("Registration failed: Email '%s' already exists", request.getEmail());
+                            return conflict("Email already exists");
+                        }
+                        return null;
+                    });
+            });
+    }
+
+    /**
+     * Hash the password on the hashing pool and persist the new user
+     */
+    private Uni<Response> createUser(SignupRequest request) {
+        return Uni.createFrom().completionStage(() -> hashingPool.submitHash(request.getPassword()))
+            .chain(hashedPassword -> {
+                List<String> roles = new ArrayList<>();
+                roles.add(AuthService.ROLE_USER);
+                if (request.isAdmin()) {
+                    roles.add(AuthService.ROLE_ADMIN);
+                }
+                return userRepository.persist(new User(request.getUsername(), request.getEmail(), hashedPassword, roles));
+            })
+            .chain(user -> {
+                LOGGER.infof("User registered successfully: %s", user.getUsername());
+                return startSession(user, Response.Status.CREATED, "User registered successfully");
+            })
+            .onFailure(PasswordHashingPool.SaturatedException.class)
+            .recoverWithItem(() -> authService.serviceUnavailable())
+            // A concurrent signup took the username or email after the checks in register
+            .onFailure(AuthService::isDuplicateKey)
+            .recoverWithUni(() -> existingAccount(request)
+                .map(conflict -> conflict != null ? conflict : authService.duplicateAccount()));
+    }
+
+    /**
+     * Process user login request
+     *
+     * @param request The login request
+     * @return Response with authentication token or error message
+     */
+    public Uni<Response> login(LoginRequest request) {
+        LOGGER.debugf("Processing login for username: %s (v2)", request.getUsername());
+
+        User cachedUser = credentialCache.lookup(request.getUsername(), request.getPassword());
+        if (cachedUser != null) {
+            return loginSucceeded(cachedUser, request);
+        }
+
+        return userRepository.findByUsername(request.getUsername())
+            .chain(user -> {
+                if (user == null) {
+                    return Uni.createFrom().item(unauthorized());
+                }
+                return Uni.createFrom().completionStage(() -> hashingPool.submitVerify(request.getPassword(), user.getPassword()))
+                    .chain(matches -> {
+                        if (!matches) {
+                            return Uni.createFrom().item(unauthorized());
+                        }
+                        credentialCache.store(user, request.getPassword());
+                        authService.rehashIfNeeded(user, request.getPassword());
+                        return loginSucceeded(user, request);
+                    });
+            })
+            .onFailure(PasswordHashingPool.SaturatedException.class)
+            .recoverWithItem(() -> authService.serviceUnavailable());
+    }
+
+    private Uni<Response> loginSucceeded(User user, LoginRequest request) {
+        LOGGER.debugf("User logged in successfully: %s", request.getUsername());
+        return startSession(user, Response.Status.OK, "Login successful");
+    }
+
+    /**
+     * Store a new refresh token session and answer with it and a new access token
+     */
+    private Uni<Response> startSession(User user, Response.Status status, String message) {
+        String refreshToken = refreshTokens.newToken();
+        return refreshTokenRepository.persist(refreshTokens.newSession(user, refreshToken))
+            .map(session -> Response.status(status)
+                .entity(authService.authenticated(user, refreshToken, message))
+                .build());
+    }
+
+    private static Response unauthorized() {
+        LOGGER.info("Login failed: Invalid username or password");
+        return Response.status(Response.Status.UNAUTHORIZED)
+            .entity(new AuthResponse(null, null, null, "Invalid username or password"))
+            .build();
+    }
+
+    private static Response conflict(String message) {
+        return Response.status(Response.Status.CONFLICT)
+            .entity(new AuthResponse(null, null, null, message))
+            .build();
+    }
+}
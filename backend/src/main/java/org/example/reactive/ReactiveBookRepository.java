@@ -0,0 +1,13 @@
+package org.example.reactive;
+
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.example.Book;
+
+/**
+ * Reactive repository for the books collection
+ * Shares the Book mapping with the blocking API but never blocks a thread on MongoDB
+ */
+@ApplicationScoped
+public class ReactiveBookRepository implements ReactivePanacheMongoRepository<Book> {
+}
@@ -0,0 +1,189 @@
+package org.example.reactive;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.PermitAll;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+import java.net.URI;
+import java.util.Map;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.example.Book;
+import org.example.BookService;
+import org.example.CatalogVersions;
+import org.example.SearchService;
+import org.example.SuggestService;
+import org.jboss.logging.Logger;
+
+/**
+ * Reactive REST API endpoints for book operations
+ * Mirrors /api/books on the event loop using the reactive MongoDB client
+ */
+@Path("/api/v2/books")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@IfBuildProperty(name = "app.api.v2.enabled", stringValue = "true", enableIfMissing = true)
+public class ReactiveBookResource {
+
+    private static final Logger LOGGER = Logger.getLogger(ReactiveBookResource.class);
+
+    @Inject
+    ReactiveBookRepository bookRepository;
+
+    @Inject
+    @CacheName(BookService.BOOK_CACHE)
+    Cache bookCache;
+
+    @Inject
+    CatalogVersions catalogVersions;
+
+    @Inject
+    SearchService searchService;
+
+    @Inject
+    SuggestService suggestService;
+
+    /**
+     * Retrieves all books
+     * The books are written as a JSON array while they are read from the database
+     * @return Stream of all books
+     */
+    @GET
+    @PermitAll
+    public Multi<Book> getAllBooks() {
+        LOGGER.debug("GET request received for all books (v2)");
+        return bookRepository.streamAll();
+    }
+
+    /**
+     * Retrieves a specific book by ID
+     * @param id The book's ID
+     * @return HTTP response with the book or 404 if not found
+     */
+    @GET
+    @Path("/{id}")
+    @PermitAll
+    public Uni<Response> getBookById(@PathParam("id") String id) {
+        LOGGER.debugf("GET request received for book with ID: %s (v2)", id);
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(notFound());
+        }
+        return bookRepository.findById(new ObjectId(id))
+            .map(book -> {
+                if (book == null) {
+                    return notFound();
+                }
+                suggestService.recordView(id);
+                return Response.ok(book).build();
+            });
+    }
+
+    /**
+     * Adds a new book to the inventory
+     * @param book The book to add
+     * @return HTTP response with the added book and location header
+     */
+    @POST
+    @RolesAllowed("ADMIN")
+    public Uni<Response> addBook(@Valid Book book) {
+        LOGGER.debugf("POST request received to add book: %s (v2)", book.getTitle());
+        book.setVersion(0L);
+        book.setReserved(0);
+        return bookRepository.persist(book)
+            .call(added -> catalogVersions.bumpAsync(CatalogVersions.BOOKS))
+            .invoke(added -> {
+                searchService.indexBook(added);
+                suggestService.indexBook(added);
+            })
+            .map(added -> Response
+                .created(URI.create("/api/v2/books/" + added.id))
+                .entity(added)
+                .build());
+    }
+
+    /**
+     * Updates an existing book with a single conditional write
+     * The update only applies if the book is still at the version given in If-Match,
+     * or in the version field of the body when no If-Match header is sent
+     * @param id The book's ID
+     * @param ifMatch The ETags of the versions the edit may apply to
+     * @param book The updated book data
+     * @return HTTP response with the updated book, 404 if not found, 409 if modified concurrently,
+     *         or 428 if neither If-Match nor a version is given
+     */
+    @PUT
+    @Path("/{id}")
+    @RolesAllowed("ADMIN")
+    public Uni<Response> updateBook(@PathParam("id") String id, @HeaderParam("If-Match") String ifMatch, @Valid Book book) {
+        LOGGER.debugf("PUT request received to update book with ID: %s (v2)", id);
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(notFound());
+        }
+        ObjectId objectId = new ObjectId(id);
+        Bson filter = Book.matchExpectedVersion(objectId, Book.parseIfMatch(ifMatch), book.getVersion());
+        if (filter == null) {
+            return Uni.createFrom().item(Response.status(Status.PRECONDITION_REQUIRED)
+                .entity(Map.of("error", "Updating book with ID " + id + " requires If-Match or a version"))
+                .build());
+        }
+        return bookRepository.mongoCollection()
+            .findOneAndUpdate(filter, book.toUpdate(),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER))
+            .chain(updated -> {
+                if (updated == null) {
+                    return bookRepository.count("_id", objectId)
+                        .map(count -> count == 0 ? notFound() : Response.status(Status.CONFLICT)
+                            .entity(Map.of("error", "Book with ID " + id + " was modified by another request"))
+                            .build());
+                }
+                searchService.indexBook(updated);
+                suggestService.indexBook(updated);
+                return catalogVersions.bumpAsync(CatalogVersions.BOOKS)
+                    .chain(() -> bookCache.invalidate(id))
+                    .replaceWith(Response.ok(updated).build());
+            });
+    }
+
+    /**
+     * Deletes a book from inventory
+     * @param id The book's ID
+     * @return HTTP response with success or not found status
+     */
+    @DELETE
+    @Path("/{id}")
+    @RolesAllowed("ADMIN")
+    public Uni<Response> deleteBook(@PathParam("id") String id) {
+        LOGGER.debugf("DELETE request received for book with ID: %s (v2)", id);
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(notFound());
+        }
+        return bookRepository.deleteById(new ObjectId(id))
+            .call(deleted -> deleted ? catalogVersions.bumpAsync(CatalogVersions.BOOKS) : Uni.createFrom().voidItem())
+            .invoke(deleted -> {
+                if (deleted) {
+                    searchService.removeBook(id);
+                    suggestService.removeBook(id);
+                }
+            })
+            .call(deleted -> bookCache.invalidate(id))
+            .map(deleted -> deleted ? Response.noContent().build() : notFound());
+    }
+
+    private static Response notFound() {
+        return Response.status(Status.NOT_FOUND)
+            .entity("{\"error\": \"Book not found\"}")
+            .build();
+    }
+}
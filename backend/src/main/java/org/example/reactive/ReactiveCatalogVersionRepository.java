@@ -0,0 +1,13 @@
+package org.example.reactive;
+
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.example.CatalogVersion;
+
+/**
+ * Reactive repository for the catalog_versions collection
+ * Lets the reactive write paths record a change without blocking the event loop
+ */
+@ApplicationScoped
+public class ReactiveCatalogVersionRepository implements ReactivePanacheMongoRepositoryBase<CatalogVersion, String> {
+}
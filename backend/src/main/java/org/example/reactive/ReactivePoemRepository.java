@@ -0,0 +1,13 @@
+package org.example.reactive;
+
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.example.Poem;
+
+/**
+ * Reactive repository for the poems collection
+ * Shares the Poem mapping with the blocking API but never blocks a thread on MongoDB
+ */
+@ApplicationScoped
+public class ReactivePoemRepository implements ReactivePanacheMongoRepository<Poem> {
+}
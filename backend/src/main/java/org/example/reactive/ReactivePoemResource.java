@@ -0,0 +1,63 @@
+package org.example.reactive;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.bson.types.ObjectId;
+import org.example.Poem;
+import org.jboss.logging.Logger;
+
+/**
+ * Reactive REST API endpoints for poem operations
+ * Mirrors /api/poems on the event loop using the reactive MongoDB client
+ */
+@Path("/api/v2/poems")
+@Produces(MediaType.APPLICATION_JSON)
+@IfBuildProperty(name = "app.api.v2.enabled", stringValue = "true", enableIfMissing = true)
+public class ReactivePoemResource {
+
+    private static final Logger LOGGER = Logger.getLogger(ReactivePoemResource.class);
+
+    @Inject
+    ReactivePoemRepository poemRepository;
+
+    /**
+     * Retrieves all poems
+     * The poems are written as a JSON array while they are read from the database
+     * @return Stream of all poems
+     */
+    @GET
+    public Multi<Poem> getAllPoems() {
+        LOGGER.debug("GET request received for all poems (v2)");
+        return poemRepository.streamAll();
+    }
+
+    /**
+     * Retrieves a specific poem by ID
+     * @param id The poem's ID
+     * @return HTTP response with the poem or 404 if not found
+     */
+    @GET
+    @Path("/{id}")
+    public Uni<Response> getPoemById(@PathParam("id") String id) {
+        LOGGER.debugf("GET request received for poem with ID: %s (v2)", id);
+        if (!ObjectId.isValid(id)) {
+            return Uni.createFrom().item(notFound());
+        }
+        return poemRepository.findById(new ObjectId(id))
+            .map(poem -> poem != null ? Response.ok(poem).build() : notFound());
+    }
+
+    private static Response notFound() {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity("{\"error\": \"Poem not found\"}")
+            .build();
+    }
+}
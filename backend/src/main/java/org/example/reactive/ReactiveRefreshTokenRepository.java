@@ -0,0 +1,13 @@
+package org.example.reactive;
+
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.example.RefreshToken;
+
+/**
+ * Reactive repository for the refresh_tokens collection
+ * Lets the reactive login and signup start sessions without blocking the event loop
+ */
+@ApplicationScoped
+public class ReactiveRefreshTokenRepository implements ReactivePanacheMongoRepository<RefreshToken> {
+}
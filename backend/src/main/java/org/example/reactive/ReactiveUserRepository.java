@@ -0,0 +1,34 @@
+package org.example.reactive;
+
+import io.quarkus.mongodb.panache.reactive.ReactivePanacheMongoRepository;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.example.User;
+
+/**
+ * Reactive repository for the users collection
+ * Shares the User mapping with the blocking API but never blocks a thread on MongoDB
+ */
+@ApplicationScoped
+public class ReactiveUserRepository implements ReactivePanacheMongoRepository<User> {
+
+    /**
+     * Finds a user by username
+     *
+     * @param username The username to search for
+     * @return The user if found, null otherwise
+     */
+    public Uni<User> findByUsername(String username) {
+        return find("username", username).firstResult();
+    }
+
+    /**
+     * Finds a user by email
+     *
+     * @param email The email to search for
+     * @return The user if found, null otherwise
+     */
+    public Uni<User> findByEmail(String email) {
+        return find("email", email).firstResult();
+    }
+}
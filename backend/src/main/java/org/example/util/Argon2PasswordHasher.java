@@ -0,0 +1,180 @@
+package org.example.util;
+
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Argon2id password hashing, encoded in the PHC string format
+ * $argon2id$v=19$m=19456,t=2,p=1$salt$hash, with unpadded Base64 salt and hash.
+ * Memory is the main cost and stays as configured; calibration only raises the iterations.
+ */
+public final class Argon2PasswordHasher implements PasswordHasher {
+
+    public static final String ALGORITHM = "argon2id";
+
+    /**
+     * Highest iteration count calibration picks
+     */
+    static final int MAX_ITERATIONS = 64;
+
+    private static final String PREFIX = "$argon2id$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final int memoryKib;
+    private final int iterations;
+    private final int parallelism;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param memoryKib Memory used per hash, in KiB
+     * @param iterations Number of passes over the memory
+     * @param parallelism Number of lanes
+     */
+    public Argon2PasswordHasher(int memoryKib, int iterations, int parallelism) {
+        if (parallelism < 1 || iterations < 1 || memoryKib < 8 * parallelism) {
+            throw new IllegalArgumentException("Invalid Argon2 parameters: m=" + memoryKib
+                + ", t=" + iterations + ", p=" + parallelism);
+        }
+        this.memoryKib = memoryKib;
+        this.iterations = iterations;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Pick the highest iteration count whose verify time stays within the target on the current machine
+     *
+     * @param target Verify time to aim for
+     * @param memoryKib Memory used per hash, in KiB
+     * @param minIterations Lowest acceptable iteration count, used when even it exceeds the target
+     * @param parallelism Number of lanes
+     * @return A hasher with the calibrated iteration count
+     */
+    public static Argon2PasswordHasher calibrate(Duration target, int memoryKib, int minIterations, int parallelism) {
+        long baseline = PasswordHasher.verifyNanos(new Argon2PasswordHasher(memoryKib, minIterations, parallelism));
+        // Time grows linearly with the number of passes
+        long iterations = minIterations * target.toNanos() / Math.max(1, baseline);
+        iterations = Math.max(minIterations, Math.min(MAX_ITERATIONS, iterations));
+        return new Argon2PasswordHasher(memoryKib, (int) iterations, parallelism);
+    }
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String parameters() {
+        return "m=" + memoryKib + ",t=" + iterations + ",p=" + parallelism;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, memoryKib, iterations, parallelism, HASH_LENGTH);
+        return PREFIX + "v=" + Argon2Parameters.ARGON2_VERSION_13 + "$" + parameters()
+            + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String hashed) {
+        Encoded encoded = Encoded.parse(hashed);
+        if (encoded == null) {
+            return false;
+        }
+        byte[] actual = derive(password, encoded.salt, encoded.memoryKib, encoded.iterations,
+            encoded.parallelism, encoded.hash.length);
+        return MessageDigest.isEqual(actual, encoded.hash);
+    }
+
+    @Override
+    public boolean supports(String hashed) {
+        return hashed != null && hashed.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean needsRehash(String hashed) {
+        Encoded encoded = Encoded.parse(hashed);
+        return encoded == null || encoded.memoryKib < memoryKib || encoded.iterations < iterations;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int memoryKib, int iterations, int parallelism, int length) {
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+            .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+            .withMemoryAsKB(memoryKib)
+            .withIterations(iterations)
+            .withParallelism(parallelism)
+            .withSalt(salt)
+            .build();
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] hash = new byte[length];
+        generator.generateBytes(password.getBytes(StandardCharsets.UTF_8), hash);
+        return hash;
+    }
+
+    /**
+     * Parameters, salt and hash decoded from a PHC string
+     */
+    private static final class Encoded {
+        private final int memoryKib;
+        private final int iterations;
+        private final int parallelism;
+        private final byte[] salt;
+        private final byte[] hash;
+
+        private Encoded(int memoryKib, int iterations, int parallelism, byte[] salt, byte[] hash) {
+            this.memoryKib = memoryKib;
+            this.iterations = iterations;
+            this.parallelism = parallelism;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        /**
+         * @return The decoded hash, or null if it is not a valid Argon2id version 19 PHC string
+         */
+        static Encoded parse(String hashed) {
+            if (hashed == null || !hashed.startsWith(PREFIX)) {
+                return null;
+            }
+            String[] parts = hashed.split("\\$");
+            if (parts.length != 6 || !parts[2].equals("v=" + Argon2Parameters.ARGON2_VERSION_13)) {
+                return null;
+            }
+            try {
+                int memoryKib = -1;
+                int iterations = -1;
+                int parallelism = -1;
+                for (String parameter : parts[3].split(",")) {
+                    int value = Integer.parseInt(parameter.substring(2));
+                    switch (parameter.substring(0, 2)) {
+                        case "m=" -> memoryKib = value;
+                        case "t=" -> iterations = value;
+                        case "p=" -> parallelism = value;
+                        default -> {
+                            return null;
+                        }
+                    }
+                }
+                byte[] salt = DECODER.decode(parts[4]);
+                byte[] hash = DECODER.decode(parts[5]);
+                if (memoryKib < 8 * parallelism || iterations < 1 || parallelism < 1 || hash.length == 0) {
+                    return null;
+                }
+                return new Encoded(memoryKib, iterations, parallelism, salt, hash);
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.util;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * BCrypt password hashing, in the $2a$10$... format
+ * Hashes with the $2b$ and $2y$ prefixes of other libraries are verified as well.
+ */
+public final class BCryptPasswordHasher implements PasswordHasher {
+
+    public static final String ALGORITHM = "bcrypt";
+
+    /**
+     * Highest cost calibration picks; each step doubles the time, and 16 already takes seconds
+     */
+    static final int MAX_COST = 16;
+
+    private static final int HASH_LENGTH = 60;
+
+    private final int cost;
+
+    /**
+     * @param cost Log2 of the number of key expansion rounds, between 4 and 31
+     */
+    public BCryptPasswordHasher(int cost) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31, got " + cost);
+        }
+        this.cost = cost;
+    }
+
+    /**
+     * Pick the highest cost whose verify time stays within the target on the current machine
+     *
+     * @param target Verify time to aim for
+     * @param minCost Lowest acceptable cost, used when even it exceeds the target
+     * @return A hasher with the calibrated cost
+     */
+    public static BCryptPasswordHasher calibrate(Duration target, int minCost) {
+        long baseline = PasswordHasher.verifyNanos(new BCryptPasswordHasher(minCost));
+        int cost = minCost;
+        // Every cost step doubles the work
+        while (cost < MAX_COST && baseline << (cost + 1 - minCost) <= target.toNanos()) {
+            cost++;
+        }
+        return new BCryptPasswordHasher(cost);
+    }
+
+    /**
+     * @return Log2 of the number of key expansion rounds
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public String parameters() {
+        return "cost=" + cost;
+    }
+
+    @Override
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    @Override
+    public boolean verify(String password, String hashed) {
+        if (!supports(hashed)) {
+            return false;
+        }
+        try {
+            // jBCrypt only knows the $2a$ revision; $2b$ and $2y$ compute the same hash for passwords under 256 bytes
+            return BCrypt.checkpw(password, "$2a" + hashed.substring(3));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean supports(String hashed) {
+        return hashed != null && hashed.length() == HASH_LENGTH
+            && (hashed.startsWith("$2a$") || hashed.startsWith("$2b$") || hashed.startsWith("$2y$"));
+    }
+
+    @Override
+    public boolean needsRehash(String hashed) {
+        try {
+            return Integer.parseInt(hashed.substring(4, 6)) < cost;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+}
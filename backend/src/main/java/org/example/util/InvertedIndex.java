@@ -0,0 +1,296 @@
+package org.example.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index with BM25 ranking
+ * Documents are made of weighted text fields; a term found in a field with weight 2 counts twice.
+ * The last query term also matches as a prefix, so partially typed words find results.
+ * Reads run concurrently, writes are exclusive.
+ */
+public final class InvertedIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double PREFIX_MATCH_FACTOR = 0.8;
+
+    private final double k1;
+    private final double b;
+
+    private final NavigableMap<String, Map<String, Float>> postings = new TreeMap<>();
+    private final Map<String, Map<String, Float>> documents = new HashMap<>();
+    private final Map<String, Float> lengths = new HashMap<>();
+    private double totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an index with the usual BM25 parameters (k1 = 1.2, b = 0.75)
+     */
+    public InvertedIndex() {
+        this(1.2, 0.75);
+    }
+
+    /**
+     * Creates an index with custom BM25 parameters
+     *
+     * @param k1 Term frequency saturation
+     * @param b Document length normalisation, from 0 (none) to 1 (full)
+     */
+    public InvertedIndex(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Add a document, replacing any previous version with the same key
+     *
+     * @param key Unique key of the document
+     * @param fields The document's text fields
+     */
+    public void put(String key, List<Field> fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (Field field : fields) {
+            for (String term : tokenize(field.text)) {
+                frequencies.merge(term, field.weight, Float::sum);
+                length += field.weight;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(key, entry.getValue());
+            }
+            documents.put(key, frequencies);
+            lengths.put(key, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document
+     *
+     * @param key Key of the document to remove
+     */
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all documents
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of indexed documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the documents matching a query, best first
+     *
+     * @param query Free text query
+     * @param offset Number of top hits to skip
+     * @param limit Maximum number of hits to return
+     * @param keyFilter Only documents whose key passes this filter are returned
+     * @return The requested hits and the total number of matching documents
+     */
+    public Result search(String query, int offset, int limit, Predicate<String> keyFilter) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new Result(Collections.emptyList(), 0);
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount > 0 ? totalLength / documentCount : 0;
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                score(term, 1.0, documentCount, averageLength, keyFilter, scores);
+                if (i == terms.size() - 1) {
+                    int expansions = 0;
+                    for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                        if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        score(candidate, PREFIX_MATCH_FACTOR, documentCount, averageLength, keyFilter, scores);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Never more hits than there are matches, whatever the offset the caller asks for
+        int wanted = (int) Math.min((long) offset + limit, scores.size());
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::getScore).thenComparing(Hit::getKey, Comparator.reverseOrder());
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, wanted), ranking);
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            Hit hit = new Hit(entry.getKey(), entry.getValue());
+            if (top.size() < wanted) {
+                top.add(hit);
+            } else if (wanted > 0 && ranking.compare(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(ranking.reversed());
+        List<Hit> page = offset < ranked.size() ? ranked.subList(offset, ranked.size()) : Collections.emptyList();
+        return new Result(new ArrayList<>(page), scores.size());
+    }
+
+    /**
+     * Split text into normalised terms: lower case, without diacritics, on letter and digit boundaries
+     *
+     * @param text The text to tokenize
+     * @return The terms in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private void score(String term, double factor, int documentCount, double averageLength,
+                       Predicate<String> keyFilter, Map<String, Double> scores) {
+        Map<String, Float> matches = postings.get(term);
+        if (matches == null) {
+            return;
+        }
+        double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+        for (Map.Entry<String, Float> match : matches.entrySet()) {
+            if (!keyFilter.test(match.getKey())) {
+                continue;
+            }
+            double frequency = match.getValue();
+            double norm = averageLength > 0 ? lengths.get(match.getKey()) / averageLength : 1;
+            double score = idf * frequency * (k1 + 1) / (frequency + k1 * (1 - b + b * norm));
+            scores.merge(match.getKey(), factor * score, Double::sum);
+        }
+    }
+
+    private void removeInternal(String key) {
+        Map<String, Float> previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<String, Float> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(key);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= lengths.remove(key);
+    }
+
+    /**
+     * Weighted text field of a document
+     */
+    public static final class Field {
+        private final String text;
+        private final float weight;
+
+        public Field(String text, float weight) {
+            this.text = text;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Matching document with its relevance score
+     */
+    public static final class Hit {
+        private final String key;
+        private final double score;
+
+        public Hit(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Page of hits with the total number of matching documents
+     */
+    public static final class Result {
+        private final List<Hit> hits;
+        private final int total;
+
+        public Result(List<Hit> hits, int total) {
+            this.hits = hits;
+            this.total = total;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.util;
+
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last document of a page, encoded as an opaque cursor token
+ * The token carries the sort field, its direction, the last sort value and the last document ID,
+ * so the next page resumes with an index seek instead of skipping documents
+ */
+public final class PageCursor {
+
+    private static final String VERSION = "2";
+
+    private final String sortField;
+    private final boolean ascending;
+    private final Object lastValue;
+    private final ObjectId lastId;
+
+    /**
+     * Creates a cursor positioned after a document
+     *
+     * @param sortField The field the page is sorted by, "_id" for natural order
+     * @param ascending Whether the sort is ascending
+     * @param lastValue The sort value of the last document, as a BSON value (Decimal128, Date, String, ...)
+     * @param lastId The ID of the last document
+     */
+    public PageCursor(String sortField, boolean ascending, Object lastValue, ObjectId lastId) {
+        this.sortField = sortField;
+        this.ascending = ascending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public ObjectId getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Encode this position into a URL-safe opaque token
+     * @return The cursor token
+     */
+    public String encode() {
+        Document document = new Document("v", VERSION)
+            .append("s", sortField)
+            .append("a", ascending)
+            .append("l", lastValue)
+            .append("i", lastId);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(document.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token
+     * @param token The cursor token received from the client
+     * @return The position to resume after
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            Document document = Document.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (!VERSION.equals(document.getString("v")) || !(document.get("i") instanceof ObjectId)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(document.getString("s"), document.getBoolean("a", true),
+                document.get("l"), document.getObjectId("i"));
+        } catch (IllegalArgumentException | JsonParseException | ClassCastException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
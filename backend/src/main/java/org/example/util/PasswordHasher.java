@@ -0,0 +1,70 @@
+package org.example.util;
+
+/**
+ * A password hashing scheme with its cost parameters
+ * Stored hashes carry their scheme and parameters, so a hasher recognises its own hashes,
+ * verifies them whatever parameters they were computed with, and can tell when they are weaker than its own.
+ */
+public interface PasswordHasher {
+
+    /**
+     * @return Name of the scheme, as set in app.auth.hashing.algorithm
+     */
+    String algorithm();
+
+    /**
+     * @return The cost parameters new hashes are computed with, for logging
+     */
+    String parameters();
+
+    /**
+     * Hash a password with a new random salt
+     *
+     * @param password The plain-text password
+     * @return The encoded hash, including the scheme, parameters and salt
+     */
+    String hash(String password);
+
+    /**
+     * Check a password against a stored hash of this scheme
+     *
+     * @param password The plain-text password
+     * @param hashed The stored hash
+     * @return true if the password matches; false if it does not or the hash is malformed
+     */
+    boolean verify(String password, String hashed);
+
+    /**
+     * @param hashed A stored hash
+     * @return true if the hash is in this scheme's format
+     */
+    boolean supports(String hashed);
+
+    /**
+     * Check whether a stored hash of this scheme was computed with weaker parameters than this hasher's
+     * Stronger hashes are kept, so replicas calibrated on different hardware do not keep rehashing each other's work
+     *
+     * @param hashed A stored hash of this scheme
+     * @return true if the hash should be recomputed
+     */
+    boolean needsRehash(String hashed);
+
+    /**
+     * Measure how long verifying a password takes with this hasher's parameters on the current machine
+     * Verification is as expensive as hashing; the fastest of a few runs after a warm-up is returned
+     *
+     * @param hasher The hasher to time
+     * @return Verify time in nanoseconds
+     */
+    static long verifyNanos(PasswordHasher hasher) {
+        String password = "calibration-password";
+        String hashed = hasher.hash(password);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            hasher.verify(password, hashed);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+}
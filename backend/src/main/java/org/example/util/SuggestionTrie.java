@@ -0,0 +1,281 @@
+package org.example.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie for prefix suggestions ranked by score
+ * Every node caches the best entries of its subtree, so a lookup costs the length of
+ * the prefix plus the number of results, whatever the number of entries below it.
+ * Writes recompute the caches along the affected paths only.
+ *
+ * @param <T> Type of the suggested values
+ */
+public final class SuggestionTrie<T> {
+
+    private final int maxResults;
+    private final Comparator<Entry<T>> ranking;
+    private final Node<T> root = new Node<>("");
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an empty trie
+     *
+     * @param maxResults Maximum number of results cached per node, and so returned per lookup
+     * @param tieBreaker Order of values with the same score
+     */
+    public SuggestionTrie(int maxResults, Comparator<T> tieBreaker) {
+        this.maxResults = maxResults;
+        Comparator<Entry<T>> byScore = Comparator.comparingLong(entry -> -entry.score);
+        this.ranking = byScore.thenComparing(entry -> entry.value, tieBreaker);
+    }
+
+    /**
+     * Add a value reachable through the given keys, replacing any previous keys of the value
+     *
+     * @param value The value to suggest
+     * @param keys Normalised strings whose prefixes should suggest the value
+     * @param score Ranking score, higher first
+     */
+    public void put(T value, Collection<String> keys, long score) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(value);
+            Entry<T> entry = new Entry<>(value, new ArrayList<>(new LinkedHashSet<>(keys)), score);
+            entries.put(value, entry);
+            for (String key : entry.keys) {
+                List<Node<T>> path = insert(key, entry);
+                refresh(path);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change the score of a value
+     *
+     * @param value The value to rescore
+     * @param score The new score
+     */
+    public void setScore(T value, long score) {
+        lock.writeLock().lock();
+        try {
+            Entry<T> entry = entries.get(value);
+            if (entry == null || entry.score == score) {
+                return;
+            }
+            entry.score = score;
+            for (String key : entry.keys) {
+                refresh(find(key));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a value
+     *
+     * @param value The value to remove
+     */
+    public void remove(T value) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best values with a key starting with the prefix
+     *
+     * @param prefix Normalised prefix
+     * @param limit Maximum number of values, capped at the trie's maximum
+     * @return Values ordered by score
+     */
+    public List<T> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node<T> node = root;
+            String remaining = prefix;
+            while (!remaining.isEmpty()) {
+                Node<T> child = node.children.get(remaining.charAt(0));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                if (remaining.length() <= child.label.length()) {
+                    if (!child.label.startsWith(remaining)) {
+                        return Collections.emptyList();
+                    }
+                    node = child;
+                    break;
+                }
+                if (!remaining.startsWith(child.label)) {
+                    return Collections.emptyList();
+                }
+                remaining = remaining.substring(child.label.length());
+                node = child;
+            }
+            List<T> values = new ArrayList<>(Math.min(limit, node.top.size()));
+            for (Entry<T> entry : node.top) {
+                if (values.size() == limit) {
+                    break;
+                }
+                values.add(entry.value);
+            }
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of values in the trie
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(T value) {
+        Entry<T> entry = entries.remove(value);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            List<Node<T>> path = find(key);
+            Node<T> terminal = path.get(path.size() - 1);
+            terminal.terminals.remove(entry);
+            prune(path);
+            refresh(path);
+        }
+    }
+
+    /**
+     * Insert a key, splitting edges where needed, and return the nodes from the root to the key
+     */
+    private List<Node<T>> insert(String key, Entry<T> entry) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        String remaining = key;
+        while (!remaining.isEmpty()) {
+            Node<T> child = node.children.get(remaining.charAt(0));
+            if (child == null) {
+                child = new Node<>(remaining);
+                node.children.put(remaining.charAt(0), child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefixLength(child.label, remaining);
+            if (common < child.label.length()) {
+                Node<T> split = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                split.top = new ArrayList<>(child.top);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            remaining = remaining.substring(common);
+            node = child;
+            path.add(node);
+        }
+        node.terminals.add(entry);
+        return path;
+    }
+
+    /**
+     * Return the nodes from the root to an existing key
+     */
+    private List<Node<T>> find(String key) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        String remaining = key;
+        while (!remaining.isEmpty()) {
+            node = node.children.get(remaining.charAt(0));
+            path.add(node);
+            remaining = remaining.substring(node.label.length());
+        }
+        return path;
+    }
+
+    /**
+     * Detach nodes left without entries or children at the end of a path
+     */
+    private void prune(List<Node<T>> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<T> node = path.get(i);
+            if (!node.terminals.isEmpty() || !node.children.isEmpty()) {
+                return;
+            }
+            path.get(i - 1).children.remove(node.label.charAt(0));
+            path.remove(i);
+        }
+    }
+
+    /**
+     * Recompute the cached best entries from the deepest node of the path up to the root
+     */
+    private void refresh(List<Node<T>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<T> node = path.get(i);
+            Set<Entry<T>> candidates = new LinkedHashSet<>(node.terminals);
+            for (Node<T> child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            List<Entry<T>> top = new ArrayList<>(candidates);
+            top.sort(ranking);
+            node.top = top.size() > maxResults ? new ArrayList<>(top.subList(0, maxResults)) : top;
+        }
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node<T> {
+        private String label;
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final List<Entry<T>> terminals = new ArrayList<>(1);
+        private List<Entry<T>> top = Collections.emptyList();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final List<String> keys;
+        private long score;
+
+        Entry(T value, List<String> keys, long score) {
+            this.value = value;
+            this.keys = keys;
+            this.score = score;
+        }
+    }
+}
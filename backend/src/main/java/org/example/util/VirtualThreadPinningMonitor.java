@@ -0,0 +1,91 @@
+package org.example.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ImageMode;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/**
+ * Publishes a metric for virtual threads that pin their carrier thread
+ * Pinning happens when a virtual thread blocks inside a synchronized block or native frame,
+ * for example in the MongoDB driver, and silently turns a virtual thread back into a platform thread
+ * Our own code that can wait while holding a lock uses ReentrantLock rather than synchronized for this reason
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.virtual-threads.pinning-monitor.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.virtual-threads.pinning-monitor.threshold", defaultValue = "20ms")
+    Duration threshold;
+
+    private RecordingStream recording;
+
+    /**
+     * Start listening for pinning events from the JDK Flight Recorder on application startup
+     */
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (ImageMode.current() == ImageMode.NATIVE_RUN) {
+            // Native executables are built without the Flight Recorder, to keep startup and memory low
+            LOGGER.info("Virtual thread pinning monitor is not available in a native executable");
+            return;
+        }
+
+        Counter pinned = Counter.builder("virtual.threads.pinned")
+            .description("Number of times a virtual thread pinned its carrier thread")
+            .register(registry);
+        Timer pinnedDuration = Timer.builder("virtual.threads.pinned.duration")
+            .description("Time virtual threads spent pinned to their carrier thread")
+            .register(registry);
+
+        try {
+            recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, recorded -> {
+                pinned.increment();
+                pinnedDuration.record(recorded.getDuration());
+                if (LOGGER.isDebugEnabled() && recorded.getStackTrace() != null
+                        && !recorded.getStackTrace().getFrames().isEmpty()) {
+                    RecordedFrame top = recorded.getStackTrace().getFrames().get(0);
+                    LOGGER.debugf("Virtual thread pinned for %s at %s.%s",
+                        recorded.getDuration(), top.getMethod().getType().getName(), top.getMethod().getName());
+                }
+            });
+            recording.startAsync();
+            LOGGER.infof("Monitoring virtual thread pinning (threshold: %s)", threshold);
+        } catch (RuntimeException e) {
+            LOGGER.warnf("Virtual thread pinning monitor unavailable: %s", e.getMessage());
+            recording = null;
+        }
+    }
+
+    /**
+     * Stop the flight recorder stream on shutdown
+     */
+    void onStop(@Observes ShutdownEvent event) {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
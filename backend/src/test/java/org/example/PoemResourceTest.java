@@ -4,6 +4,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 
@@ -19,6 +20,16 @@ class PoemResourceTest {
              .body("size()", is(notNullValue()));
     }
 
+    @Test
+    void testGetAllPoemsVariesByEncoding() {
+        given()
+          .header("Accept-Encoding", "gzip")
+          .when().get("/api/poems")
+          .then()
+             .statusCode(200)
+             .header("Vary", containsString("Accept-Encoding"));
+    }
+
     @Test
     void testGetPoemByInvalidId() {
         given()
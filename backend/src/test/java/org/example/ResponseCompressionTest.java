@@ -0,0 +1,156 @@
+package org.example;
+
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCompressionTest {
+
+    private static final int MIN_SIZE = 1024;
+
+    @Test
+    void testBodyAboveMinSizeIsGzipped() throws IOException {
+        MultivaluedMap<String, Object> headers = taggedHeaders(new EntityTag("7"));
+        byte[] body = body(MIN_SIZE * 4);
+
+        byte[] sent = write("gzip, deflate", headers, body);
+
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.getFirst(HttpHeaders.VARY));
+        assertEquals("7-gzip", ((EntityTag) headers.getFirst(HttpHeaders.ETAG)).getValue());
+        assertArrayEquals(body, gunzip(sent));
+    }
+
+    @Test
+    void testBodyBelowMinSizeIsSentAsIs() throws IOException {
+        MultivaluedMap<String, Object> headers = taggedHeaders(new EntityTag("7"));
+        byte[] body = body(MIN_SIZE - 1);
+
+        byte[] sent = write("gzip", headers, body);
+
+        assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("7", ((EntityTag) headers.getFirst(HttpHeaders.ETAG)).getValue());
+        assertArrayEquals(body, sent);
+    }
+
+    @Test
+    void testGzipWithZeroQualityIsNotUsed() throws IOException {
+        MultivaluedMap<String, Object> headers = taggedHeaders(new EntityTag("7"));
+        byte[] body = body(MIN_SIZE * 4);
+
+        byte[] sent = write("gzip;q=0, identity", headers, body);
+
+        assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.getFirst(HttpHeaders.VARY));
+        assertArrayEquals(body, sent);
+        assertFalse(ResponseCompression.acceptsGzip("gzip;q=0, *"));
+    }
+
+    @Test
+    void testTagSetAsTextIsSuffixed() throws IOException {
+        MultivaluedMap<String, Object> headers = taggedHeaders("W/\"books-0-3\"");
+
+        write("gzip", headers, body(MIN_SIZE));
+
+        assertEquals("W/\"books-0-3-gzip\"", headers.getFirst(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Run a body through the interceptor as a response to a request with the given Accept-Encoding
+     */
+    private static byte[] write(String acceptEncoding, MultivaluedMap<String, Object> headers, byte[] body)
+            throws IOException {
+        ResponseCompression compression = new ResponseCompression();
+        compression.config = new TestCompressionConfig();
+        compression.resourceInfo = stub(ResourceInfo.class, (name, args) -> null);
+        compression.requestHeaders = stub(HttpHeaders.class,
+            (name, args) -> HttpHeaders.ACCEPT_ENCODING.equals(args[0]) ? acceptEncoding : null);
+
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        OutputStream[] out = {sent};
+        WriterInterceptorContext context = stub(WriterInterceptorContext.class, (name, args) -> switch (name) {
+            case "getHeaders" -> headers;
+            case "getOutputStream" -> out[0];
+            case "setOutputStream" -> out[0] = (OutputStream) args[0];
+            case "proceed" -> {
+                out[0].write(body);
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+        compression.aroundWriteTo(context);
+        return sent.toByteArray();
+    }
+
+    private static MultivaluedMap<String, Object> taggedHeaders(Object tag) {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        headers.putSingle(HttpHeaders.ETAG, tag);
+        return headers;
+    }
+
+    private static byte[] body(int size) {
+        byte[] body = new byte[size];
+        byte[] pattern = "{\"title\":\"The Hobbit\"},".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < size; i++) {
+            body[i] = pattern[i % pattern.length];
+        }
+        return body;
+    }
+
+    private static byte[] gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(String method, Object[] args) throws IOException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+
+    private static final class TestCompressionConfig implements CompressionConfig {
+        @Override
+        public boolean enabled() {
+            return true;
+        }
+
+        @Override
+        public int minSize() {
+            return MIN_SIZE;
+        }
+
+        @Override
+        public int defaultLevel() {
+            return 6;
+        }
+
+        @Override
+        public Map<String, Integer> level() {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.example;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.NotFoundException;
+import org.bson.types.ObjectId;
+import org.example.load.InMemoryMongoResource;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+@TestProfile(StockServiceTest.BufferedStock.class)
+@QuarkusTestResource(value = InMemoryMongoResource.class, restrictToAnnotatedClass = true)
+class StockServiceTest {
+
+    private static final ObjectId BUFFERED_ID = new ObjectId("65f0000000000000000000b1");
+    private static final ObjectId CONTENDED_BUFFERED_ID = new ObjectId("65f0000000000000000000b2");
+    private static final int BUYERS = 60;
+
+    /**
+     * Buffers two books in chunks of 10 and keeps the scheduled flush out of the way of the tests
+     */
+    public static class BufferedStock implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.stock.buffer.book-ids", BUFFERED_ID.toHexString() + "," + CONTENDED_BUFFERED_ID.toHexString(),
+                "app.stock.buffer.chunk-size", "10",
+                "app.stock.buffer.flush-interval", "1h");
+        }
+    }
+
+    @Inject
+    StockService stockService;
+
+    @Test
+    void testReservePastStockIsConflict() {
+        String id = createBook(new ObjectId(), 2);
+
+        ClientErrorException e = assertThrows(ClientErrorException.class, () -> stockService.reserve(id, 3));
+
+        assertEquals(409, e.getResponse().getStatus());
+        assertStock(id, 2, 0);
+    }
+
+    @Test
+    void testReleaseBeyondReservedIsConflict() {
+        String id = createBook(new ObjectId(), 5);
+        stockService.reserve(id, 2);
+
+        ClientErrorException e = assertThrows(ClientErrorException.class, () -> stockService.release(id, 3));
+
+        assertEquals(409, e.getResponse().getStatus());
+        assertStock(id, 3, 2);
+
+        stockService.release(id, 2);
+        assertStock(id, 5, 0);
+    }
+
+    @Test
+    void testUnknownBookIsNotFound() {
+        String id = new ObjectId().toHexString();
+
+        assertThrows(NotFoundException.class, () -> stockService.reserve(id, 1));
+    }
+
+    @Test
+    void testBufferedReservationIsReturnedOnFlush() {
+        String id = createBook(BUFFERED_ID, 25);
+
+        stockService.reserve(id, 1);
+        // A whole chunk leaves quantity; the unit not reserved stays in the allowance
+        assertStock(id, 15, 10);
+
+        stockService.flush();
+        assertStock(id, 24, 1);
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        String id = createBook(new ObjectId(), 25);
+
+        assertEquals(25, reserveConcurrently(id));
+        assertStock(id, 0, 25);
+    }
+
+    @Test
+    void testConcurrentBufferedReservationsNeverOversell() throws Exception {
+        String id = createBook(CONTENDED_BUFFERED_ID, 25);
+
+        assertEquals(25, reserveConcurrently(id));
+        assertStock(id, 0, 25);
+
+        // Nothing is left in the stripes to hand back
+        stockService.flush();
+        assertStock(id, 0, 25);
+    }
+
+    /**
+     * Have BUYERS threads reserve one unit each at the same moment
+     *
+     * @return Number of reservations that succeeded; every other one must have been refused with 409
+     */
+    private int reserveConcurrently(String id) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BUYERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockService.reserve(id, 1);
+                        return true;
+                    } catch (ClientErrorException e) {
+                        assertEquals(409, e.getResponse().getStatus());
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    reserved++;
+                }
+            }
+            return reserved;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String createBook(ObjectId id, int quantity) {
+        Book book = new Book("Stock Test " + id, "Test Author", "A book for stock tests", new BigDecimal("9.99"),
+            quantity, null, LocalDate.of(2000, 1, 1), "Test Publisher", "Fiction", null);
+        book.id = id;
+        book.setVersion(0L);
+        book.setReserved(0);
+        book.persist();
+        return id.toHexString();
+    }
+
+    private static void assertStock(String id, int quantity, int reserved) {
+        Book book = Book.findById(new ObjectId(id));
+        assertEquals(quantity, book.getQuantity(), "quantity");
+        assertEquals(reserved, book.getReserved(), "reserved");
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.example.load.InMemoryMongoResource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@QuarkusTestResource(value = InMemoryMongoResource.class, restrictToAnnotatedClass = true)
+class TracingTest {
+
+    @Inject
+    InMemorySpanExporter exporter;
+
+    @Test
+    void testBookListTraceCoversServiceMongoAndSerialization() throws InterruptedException {
+        exporter.reset();
+
+        given()
+          .when().get("/api/books")
+          .then()
+             .statusCode(200);
+
+        SpanData server = awaitSpan("GET /api/books");
+        List<SpanData> trace = exporter.getFinishedSpanItems().stream()
+            .filter(span -> span.getTraceId().equals(server.getTraceId()))
+            .toList();
+        Set<String> names = trace.stream().map(SpanData::getName).collect(Collectors.toSet());
+
+        assertEquals(SpanKind.SERVER, server.getKind());
+        assertTrue(names.contains("BookService.getAllBooks"), names::toString);
+        assertTrue(names.contains("mongodb.find"), names::toString);
+        assertTrue(names.stream().anyMatch(name -> name.startsWith("serialize ")), names::toString);
+    }
+
+    /**
+     * Spans are exported in batches, so wait for the server span of the request to arrive
+     */
+    private SpanData awaitSpan(String name) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            for (SpanData span : exporter.getFinishedSpanItems()) {
+                if (span.getName().equals(name)) {
+                    return span;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No span named " + name + " in " + exporter.getFinishedSpanItems());
+    }
+}
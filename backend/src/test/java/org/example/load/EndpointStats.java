@@ -0,0 +1,59 @@
+package org.example.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one endpoint during a load run
+ */
+class EndpointStats {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY, 3);
+    private final LongAdder errors = new LongAdder();
+    private Histogram histogram;
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Discard everything recorded so far, used at the end of the warm-up
+     */
+    void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    /**
+     * Freeze the recorded latencies so they can be reported
+     */
+    Histogram finish() {
+        histogram = recorder.getIntervalHistogram();
+        return histogram;
+    }
+
+    Histogram getHistogram() {
+        return histogram;
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+}
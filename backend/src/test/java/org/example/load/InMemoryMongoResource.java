@@ -0,0 +1,29 @@
+package org.example.load;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.util.Map;
+
+/**
+ * Starts an in-process MongoDB wire protocol server backed by memory
+ * Lets the application run against a database without Docker or a local mongod
+ */
+public class InMemoryMongoResource implements QuarkusTestResourceLifecycleManager {
+
+    private MongoServer server;
+
+    @Override
+    public Map<String, String> start() {
+        server = new MongoServer(new MemoryBackend());
+        return Map.of("quarkus.mongodb.connection-string", server.bindAndGetConnectionString());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package org.example.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.HdrHistogram.Histogram;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mixed-workload load test of the book, poem and auth endpoints
+ * Runs the whole application against an in-process MongoDB stand-in and reports
+ * throughput and latency percentiles per endpoint to the log and target/load-test/.
+ * Excluded from the default build; run with ./mvnw test -Pload-test
+ * Tune with -Dload.duration, -Dload.warmup, -Dload.concurrency and -Dload.books.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = InMemoryMongoResource.class, restrictToAnnotatedClass = true)
+@Tag("load")
+class LoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger(LoadTest.class);
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+    private static final Duration WARMUP = Duration.parse("PT" + System.getProperty("load.warmup", "10s"));
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int BOOKS = Integer.getInteger("load.books", 1000);
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final List<String> bookIds = new CopyOnWriteArrayList<>();
+    private final List<String> poemIds = new ArrayList<>();
+    private final Deque<String> createdBookIds = new ConcurrentLinkedDeque<>();
+    private final Deque<String> refreshTokens = new ConcurrentLinkedDeque<>();
+    private final AtomicLong signups = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private String adminToken;
+
+    /**
+     * Operation of the workload with its share of the requests, out of 100
+     */
+    private record Operation(String endpoint, int weight, Action action) {
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        HttpResponse<byte[]> run() throws Exception;
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        prepare();
+        List<Operation> operations = List.of(
+            new Operation("GET /api/books", 15, () -> send(get("/api/books?limit=20"))),
+            new Operation("GET /api/books?category", 10, () -> send(get("/api/books?category=Fiction&sort=-price&limit=20"))),
+            new Operation("GET /api/books/{id}", 25, () -> send(get("/api/books/" + pick(bookIds)))),
+            new Operation("GET /api/poems", 5, () -> send(get("/api/poems"))),
+            new Operation("GET /api/poems/{id}", 10, () -> send(get("/api/poems/" + pick(poemIds)))),
+            new Operation("POST /api/auth/login", 5, this::login),
+            new Operation("POST /api/auth/refresh", 5, this::refresh),
+            new Operation("POST /api/auth/signup", 5, this::signup),
+            new Operation("POST /api/books", 8, () -> send(post("/api/books", bookJson(ThreadLocalRandom.current().nextInt()), adminToken))),
+            new Operation("PUT /api/books/{id}", 7, this::updateBook),
+            new Operation("DELETE /api/books/{id}", 5, this::deleteBook));
+        for (Operation operation : operations) {
+            stats.put(operation.endpoint(), new EndpointStats(operation.endpoint()));
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP.toNanos();
+        long end = measureFrom + DURATION.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.submit(() -> runWorker(operations, end));
+            }
+            Thread.sleep(WARMUP.toMillis());
+            stats.values().forEach(EndpointStats::reset);
+            serverErrors.set(0);
+        }
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        report(seconds);
+        assertEquals(0, serverErrors.get(), "Requests failed with a server error");
+    }
+
+    /**
+     * Import a catalog large enough for realistic pages and collect the IDs to request
+     */
+    private void prepare() throws Exception {
+        JsonNode login = json(send(post("/api/auth/login", "{\"username\": \"admin\", \"password\": \"admin123\"}", null)));
+        adminToken = login.get("token").asText();
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < BOOKS; i++) {
+            ndjson.append(bookJson(i)).append('\n');
+        }
+        HttpResponse<byte[]> imported = send(HttpRequest.newBuilder(baseUri.resolve("/api/books/bulk"))
+            .header("Content-Type", "application/x-ndjson")
+            .header("Authorization", "Bearer " + adminToken)
+            .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+            .build());
+        assertEquals(200, imported.statusCode(), "Bulk import failed");
+
+        for (JsonNode book : json(send(get("/api/books")))) {
+            bookIds.add(book.get("id").asText());
+        }
+        for (JsonNode poem : json(send(get("/api/poems")))) {
+            poemIds.add(poem.get("id").asText());
+        }
+    }
+
+    private void runWorker(List<Operation> operations, long end) {
+        while (System.nanoTime() < end) {
+            Operation operation = choose(operations);
+            long started = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<byte[]> response = operation.action().run();
+                success = response.statusCode() < 400 || response.statusCode() == 409;
+                if (response.statusCode() >= 500 && response.statusCode() != 503) {
+                    serverErrors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                success = false;
+                serverErrors.incrementAndGet();
+            }
+            stats.get(operation.endpoint()).record(System.nanoTime() - started, success);
+        }
+    }
+
+    private HttpResponse<byte[]> login() throws Exception {
+        HttpResponse<byte[]> response = send(post("/api/auth/login",
+            "{\"username\": \"user\", \"password\": \"user123\"}", null));
+        if (response.statusCode() == 200) {
+            refreshTokens.add(json(response).get("refreshToken").asText());
+        }
+        return response;
+    }
+
+    private HttpResponse<byte[]> refresh() throws Exception {
+        // Refresh tokens are single use, so each one is taken by one worker and its replacement put back
+        String token = refreshTokens.pollFirst();
+        if (token == null) {
+            return login();
+        }
+        HttpResponse<byte[]> response = send(post("/api/auth/refresh", "{\"refreshToken\": \"" + token + "\"}", null));
+        if (response.statusCode() == 200) {
+            refreshTokens.add(json(response).get("refreshToken").asText());
+        }
+        return response;
+    }
+
+    private HttpResponse<byte[]> signup() throws Exception {
+        String name = "load" + signups.incrementAndGet() + "x" + ThreadLocalRandom.current().nextInt(100_000);
+        return send(post("/api/auth/signup",
+            "{\"username\": \"" + name + "\", \"email\": \"" + name + "@example.org\", \"password\": \"secret123\"}", null));
+    }
+
+    private HttpResponse<byte[]> updateBook() throws Exception {
+        String id = pick(bookIds);
+        // No If-Match header and no version in the body: the update applies to whatever version is current
+        return send(HttpRequest.newBuilder(baseUri.resolve("/api/books/" + id))
+            .header("Content-Type", "application/json")
+            .header("Authorization", "Bearer " + adminToken)
+            .PUT(HttpRequest.BodyPublishers.ofString(bookJson(ThreadLocalRandom.current().nextInt())))
+            .build());
+    }
+
+    private HttpResponse<byte[]> deleteBook() throws Exception {
+        String id = createdBookIds.pollLast();
+        if (id == null) {
+            // Only books created by the run are deleted; until there is one, create one instead
+            return send(post("/api/books", bookJson(ThreadLocalRandom.current().nextInt()), adminToken));
+        }
+        return send(HttpRequest.newBuilder(baseUri.resolve("/api/books/" + id))
+            .header("Authorization", "Bearer " + adminToken)
+            .DELETE()
+            .build());
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (request.method().equals("POST") && request.uri().getPath().equals("/api/books") && response.statusCode() == 201) {
+            createdBookIds.add(json(response).get("id").asText());
+        }
+        return response;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String bookJson(int i) {
+        int n = Math.abs(i % 100_000);
+        String[] categories = {"Fiction", "Fantasy", "Science", "History", "Poetry"};
+        return "{\"title\": \"Load Test Book " + n + "\", \"author\": \"Author " + (n % 200) + "\","
+            + " \"description\": \"Generated for the load test\", \"price\": " + (5 + n % 40) + ".99,"
+            + " \"quantity\": " + (n % 100) + ", \"publishedDate\": \"" + (1950 + n % 70) + "-01-15\","
+            + " \"category\": \"" + categories[n % categories.length] + "\"}";
+    }
+
+    private static String pick(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static Operation choose(List<Operation> operations) {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * Print a summary table and write it as JSON, with the full percentile distributions next to it
+     */
+    private void report(double seconds) throws IOException {
+        Path directory = Path.of("target", "load-test");
+        Files.createDirectories(directory);
+        ArrayNode endpoints = objectMapper.createArrayNode();
+        StringBuilder table = new StringBuilder(String.format("%n%-26s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        long total = 0;
+        try (PrintStream distributions = new PrintStream(Files.newOutputStream(directory.resolve("distributions.txt")))) {
+            for (EndpointStats endpoint : stats.values()) {
+                Histogram histogram = endpoint.finish();
+                long count = histogram.getTotalCount();
+                total += count;
+                table.append(String.format("%-26s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n", endpoint.getName(), count,
+                    count / seconds, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / 1000.0, endpoint.getErrors()));
+
+                ObjectNode node = endpoints.addObject();
+                node.put("endpoint", endpoint.getName());
+                node.put("requests", count);
+                node.put("throughput", count / seconds);
+                node.put("errors", endpoint.getErrors());
+                ObjectNode percentiles = node.putObject("latencyMs");
+                for (double percentile : new double[] {50, 90, 99, 99.9}) {
+                    percentiles.put("p" + percentile, millis(histogram, percentile));
+                }
+                percentiles.put("max", histogram.getMaxValue() / 1000.0);
+
+                distributions.println(endpoint.getName() + " (microseconds)");
+                histogram.outputPercentileDistribution(distributions, 1.0);
+                distributions.println();
+            }
+        }
+        table.append(String.format("%-26s %9d %9.1f%n", "total", total, total / seconds));
+        LOGGER.infof("Load test results over %.0f seconds:%n%s", seconds, table);
+
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("durationSeconds", seconds);
+        report.put("concurrency", CONCURRENCY);
+        report.put("books", BOOKS);
+        report.put("throughput", total / seconds);
+        report.set("endpoints", endpoints);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve("report.json").toFile(), report);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
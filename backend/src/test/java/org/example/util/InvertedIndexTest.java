@@ -0,0 +1,70 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private static InvertedIndex sampleIndex() {
+        InvertedIndex index = new InvertedIndex();
+        index.put("book:1", List.of(new InvertedIndex.Field("The Hobbit", 2f),
+            new InvertedIndex.Field("J.R.R. Tolkien", 1.5f),
+            new InvertedIndex.Field("The tale of Bilbo Baggins, a hobbit who embarks on an unexpected journey.", 1f)));
+        index.put("book:2", List.of(new InvertedIndex.Field("Pride and Prejudice", 2f),
+            new InvertedIndex.Field("Jane Austen", 1.5f),
+            new InvertedIndex.Field("The story of Elizabeth Bennet and Mr. Darcy.", 1f)));
+        index.put("poem:3", List.of(new InvertedIndex.Field("Forest Secrets", 2f),
+            new InvertedIndex.Field("Woodland Echo", 1.5f),
+            new InvertedIndex.Field("Ancient trees hold counsel in verdant cathedral halls.", 1f)));
+        return index;
+    }
+
+    @Test
+    void testRanksMatchingDocumentsFirst() {
+        InvertedIndex.Result result = sampleIndex().search("hobbit journey", 0, 10, key -> true);
+
+        assertEquals(1, result.getTotal());
+        assertEquals("book:1", result.getHits().get(0).getKey());
+    }
+
+    @Test
+    void testLastTermMatchesAsPrefix() {
+        InvertedIndex.Result result = sampleIndex().search("cathed", 0, 10, key -> true);
+
+        assertEquals(1, result.getTotal());
+        assertEquals("poem:3", result.getHits().get(0).getKey());
+    }
+
+    @Test
+    void testLargeOffsetReturnsEmptyPage() {
+        InvertedIndex.Result result = sampleIndex().search("the", Integer.MAX_VALUE, 100, key -> true);
+
+        assertEquals(2, result.getTotal());
+        assertTrue(result.getHits().isEmpty());
+    }
+
+    @Test
+    void testTokenizeIgnoresCaseAndDiacritics() {
+        assertEquals(List.of("bronte", "s", "jane", "eyre"), InvertedIndex.tokenize("Brontë's JANE-Eyre"));
+    }
+
+    @Test
+    void testFilterPagingAndRemoval() {
+        InvertedIndex index = sampleIndex();
+
+        InvertedIndex.Result onlyPoems = index.search("the", 0, 10, key -> key.startsWith("poem:"));
+        assertEquals(0, onlyPoems.getTotal());
+
+        InvertedIndex.Result secondPage = index.search("the", 1, 1, key -> true);
+        assertEquals(2, secondPage.getTotal());
+        assertEquals(1, secondPage.getHits().size());
+
+        index.remove("book:1");
+        assertTrue(index.search("hobbit", 0, 10, key -> true).getHits().isEmpty());
+        assertEquals(2, index.size());
+    }
+}
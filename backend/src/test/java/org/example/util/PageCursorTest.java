@@ -0,0 +1,48 @@
+package org.example.util;
+
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void testRoundTripWithDecimalValue() {
+        ObjectId id = new ObjectId();
+        String token = new PageCursor("price", false, new Decimal128(new BigDecimal("12.99")), id).encode();
+
+        PageCursor cursor = PageCursor.decode(token);
+
+        assertEquals("price", cursor.getSortField());
+        assertFalse(cursor.isAscending());
+        assertEquals(new Decimal128(new BigDecimal("12.99")), cursor.getLastValue());
+        assertEquals(id, cursor.getLastId());
+    }
+
+    @Test
+    void testRoundTripWithDateAndNullValues() {
+        Date date = new Date(-1_000_000_000L);
+        assertEquals(date, PageCursor.decode(new PageCursor("publishedDate", true, date, new ObjectId()).encode()).getLastValue());
+        assertNull(PageCursor.decode(new PageCursor("_id", true, null, new ObjectId()).encode()).getLastValue());
+    }
+
+    @Test
+    void testTokenIsUrlSafe() {
+        String token = new PageCursor("title", true, "Über/Größe?&", new ObjectId()).encode();
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+    }
+
+    @Test
+    void testMalformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("e30"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private static final BCryptPasswordHasher BCRYPT = new BCryptPasswordHasher(4);
+    private static final Argon2PasswordHasher ARGON2 = new Argon2PasswordHasher(64, 1, 1);
+
+    @Test
+    void testBCryptRoundTrip() {
+        String hashed = BCRYPT.hash("secret");
+
+        assertTrue(hashed.startsWith("$2a$04$"));
+        assertTrue(BCRYPT.verify("secret", hashed));
+        assertFalse(BCRYPT.verify("Secret", hashed));
+    }
+
+    @Test
+    void testBCryptAcceptsOtherRevisions() {
+        String hashed = BCRYPT.hash("secret");
+
+        assertTrue(BCRYPT.verify("secret", "$2b" + hashed.substring(3)));
+        assertTrue(BCRYPT.verify("secret", "$2y" + hashed.substring(3)));
+    }
+
+    @Test
+    void testArgon2RoundTrip() {
+        String hashed = ARGON2.hash("secret");
+
+        assertTrue(hashed.startsWith("$argon2id$v=19$m=64,t=1,p=1$"));
+        assertTrue(ARGON2.verify("secret", hashed));
+        assertFalse(ARGON2.verify("Secret", hashed));
+    }
+
+    @Test
+    void testDetectsFormats() {
+        String bcrypt = BCRYPT.hash("secret");
+        String argon2 = ARGON2.hash("secret");
+
+        assertTrue(BCRYPT.supports(bcrypt));
+        assertFalse(BCRYPT.supports(argon2));
+        assertTrue(ARGON2.supports(argon2));
+        assertFalse(ARGON2.supports(bcrypt));
+        assertFalse(BCRYPT.verify("secret", argon2));
+        assertFalse(ARGON2.verify("secret", bcrypt));
+    }
+
+    @Test
+    void testRejectsMalformedHashes() {
+        assertFalse(BCRYPT.verify("secret", null));
+        assertFalse(BCRYPT.verify("secret", "$2a$04$tooshort"));
+        assertFalse(ARGON2.verify("secret", "$argon2id$v=19$m=64,t=1$c29tZXNhbHQ$aGFzaA"));
+        assertFalse(ARGON2.verify("secret", "$argon2id$v=16$m=64,t=1,p=1$c29tZXNhbHQ$aGFzaA"));
+        assertFalse(ARGON2.verify("secret", "$argon2id$v=19$m=64,t=1,p=1$!!!$aGFzaA"));
+    }
+
+    @Test
+    void testOnlyWeakerHashesNeedRehash() {
+        BCryptPasswordHasher bcrypt5 = new BCryptPasswordHasher(5);
+        assertTrue(bcrypt5.needsRehash(BCRYPT.hash("secret")));
+        assertFalse(BCRYPT.needsRehash(bcrypt5.hash("secret")));
+
+        Argon2PasswordHasher argon2 = new Argon2PasswordHasher(64, 2, 1);
+        assertTrue(argon2.needsRehash(ARGON2.hash("secret")));
+        assertFalse(ARGON2.needsRehash(argon2.hash("secret")));
+        assertTrue(new Argon2PasswordHasher(128, 1, 1).needsRehash(argon2.hash("secret")));
+    }
+
+    @Test
+    void testCalibrationKeepsTheFloor() {
+        assertEquals(4, BCryptPasswordHasher.calibrate(Duration.ZERO, 4).getCost());
+        assertEquals("m=64,t=1,p=1", Argon2PasswordHasher.calibrate(Duration.ZERO, 64, 1, 1).parameters());
+        assertTrue(BCryptPasswordHasher.calibrate(Duration.ofSeconds(10), 4).getCost() > 4);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    private static SuggestionTrie<String> sampleTrie() {
+        SuggestionTrie<String> trie = new SuggestionTrie<>(3, Comparator.<String>naturalOrder());
+        trie.put("The Hobbit", List.of("the hobbit", "hobbit"), 5);
+        trie.put("The Hunger Games", List.of("the hunger games", "hunger games", "games"), 9);
+        trie.put("The Great Gatsby", List.of("the great gatsby", "great gatsby", "gatsby"), 1);
+        trie.put("Pride and Prejudice", List.of("pride and prejudice", "and prejudice", "prejudice"), 7);
+        return trie;
+    }
+
+    @Test
+    void testRanksByScore() {
+        assertEquals(List.of("The Hunger Games", "The Hobbit", "The Great Gatsby"), sampleTrie().suggest("the", 10));
+    }
+
+    @Test
+    void testMatchesInsideEdgeLabels() {
+        SuggestionTrie<String> trie = sampleTrie();
+
+        assertEquals(List.of("The Hunger Games", "The Hobbit"), trie.suggest("the h", 10));
+        assertEquals(List.of("The Hobbit"), trie.suggest("hob", 10));
+        assertEquals(List.of("The Hunger Games", "The Great Gatsby"), trie.suggest("ga", 10));
+        assertTrue(trie.suggest("hobbits", 10).isEmpty());
+        assertTrue(trie.suggest("x", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitsResults() {
+        SuggestionTrie<String> trie = sampleTrie();
+
+        assertEquals(List.of("The Hunger Games"), trie.suggest("", 1));
+        assertEquals(3, trie.suggest("", 10).size());
+    }
+
+    @Test
+    void testScoreChangesReorder() {
+        SuggestionTrie<String> trie = sampleTrie();
+        trie.setScore("The Great Gatsby", 20);
+
+        assertEquals(List.of("The Great Gatsby", "The Hunger Games", "The Hobbit"), trie.suggest("the", 10));
+        assertEquals(List.of("The Great Gatsby", "The Hunger Games"), trie.suggest("g", 10));
+    }
+
+    @Test
+    void testRemoveAndReplace() {
+        SuggestionTrie<String> trie = sampleTrie();
+        trie.remove("The Hunger Games");
+        trie.put("The Hobbit", List.of("hobbit"), 5);
+
+        assertEquals(List.of("The Great Gatsby"), trie.suggest("the", 10));
+        assertEquals(List.of("The Hobbit"), trie.suggest("h", 10));
+        assertEquals(3, trie.size());
+    }
+}
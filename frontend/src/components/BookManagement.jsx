@@ -13,6 +13,10 @@ export default function BookManagement() {
   const [successMessage, setSuccessMessage] = createSignal(null);
   const [isEditing, setIsEditing] = createSignal(false);
   const [editingBookId, setEditingBookId] = createSignal(null);
+  // ETag of the book being edited, sent back as If-Match so a concurrent change is not overwritten
+  const [editingETag, setEditingETag] = createSignal(null);
+  // Quantity when editing started; a change is applied as a stock adjustment, not through the update
+  const [editingQuantity, setEditingQuantity] = createSignal(0);
   
   // Initial book form state
   const initialBookState = {
@@ -85,10 +89,21 @@ export default function BookManagement() {
     setBookForm({...initialBookState});
     setIsEditing(false);
     setEditingBookId(null);
+    setEditingETag(null);
   };
   
-  // Load book data into form for editing
-  const startEditingBook = (book) => {
+  // Load the current version of a book into the form for editing
+  const startEditingBook = async (listedBook) => {
+    setError(null);
+    const response = await fetch(`http://localhost:8081/api/books/${listedBook.id}`, { cache: 'no-store' });
+    if (!response.ok) {
+      setError(`Could not load "${listedBook.title}" for editing (${response.status})`);
+      return;
+    }
+    const book = await response.json();
+    setEditingETag(response.headers.get('ETag') || `"${book.version ?? 0}"`);
+    setEditingQuantity(book.quantity ?? 0);
+
     // Format the date properly for the input field if it exists
     let formattedDate = '';
     if (book.publishedDate) {
@@ -142,26 +157,38 @@ export default function BookManagement() {
       
       // If editing, send PUT request to update existing book
       if (isEditing()) {
-        response = await fetch(`http://localhost:8081/api/books/${editingBookId()}`, {
+        response = await authStore.authFetch(`http://localhost:8081/api/books/${editingBookId()}`, {
           method: 'PUT',
           headers: {
             'Content-Type': 'application/json',
-            'Authorization': `Bearer ${authStore.token()}`
+            'If-Match': editingETag()
           },
           body: JSON.stringify(bookData)
         });
         
+        if (response.status === 409 || response.status === 412) {
+          await fetchBooks();
+          throw new Error('This book was changed by someone else while you were editing. Open it again to see the latest version.');
+        }
+        
+        const adjustment = bookData.quantity - editingQuantity();
+        if (response.ok && adjustment !== 0) {
+          response = await authStore.authFetch(
+            `http://localhost:8081/api/books/${editingBookId()}/adjust?quantity=${adjustment}`,
+            { method: 'POST' }
+          );
+        }
+
         if (response.ok) {
           setSuccessMessage(`Book "${bookData.title}" updated successfully!`);
         }
       } 
       // Otherwise, send POST request to add new book
       else {
-        response = await fetch('http://localhost:8081/api/books', {
+        response = await authStore.authFetch('http://localhost:8081/api/books', {
           method: 'POST',
           headers: {
-            'Content-Type': 'application/json',
-            'Authorization': `Bearer ${authStore.token()}`
+            'Content-Type': 'application/json'
           },
           body: JSON.stringify(bookData)
         });
@@ -221,11 +248,8 @@ export default function BookManagement() {
       setError(null);
       setSuccessMessage(null);
       
-      const response = await fetch(`http://localhost:8081/api/books/${id}`, {
-        method: 'DELETE',
-        headers: {
-          'Authorization': `Bearer ${authStore.token()}`
-        }
+      const response = await authStore.authFetch(`http://localhost:8081/api/books/${id}`, {
+        method: 'DELETE'
       });
       
       if (!response.ok) {
@@ -24,11 +24,13 @@ const parseToken = (token) => {
 export const createAuthStore = () => {
   // Initial state from localStorage if available
   const storedToken = localStorage.getItem('authToken');
+  const storedRefreshToken = localStorage.getItem('refreshToken');
   const storedUser = localStorage.getItem('user') ? 
     JSON.parse(localStorage.getItem('user')) : null;
 
   // Create signals and store
   const [token, setToken] = createSignal(storedToken || '');
+  const [refreshToken, setRefreshToken] = createSignal(storedRefreshToken || '');
   const [user, setUser] = createSignal(storedUser || null);
   const [loading, setLoading] = createSignal(false);
   const [error, setError] = createSignal('');
@@ -64,6 +66,86 @@ export const createAuthStore = () => {
     }
   });
 
+  // Keep the refresh token next to the access token
+  createEffect(() => {
+    const currentRefreshToken = refreshToken();
+    if (currentRefreshToken) {
+      localStorage.setItem('refreshToken', currentRefreshToken);
+    } else {
+      localStorage.removeItem('refreshToken');
+    }
+  });
+
+  const setSession = (data) => {
+    setToken(data.token);
+    setRefreshToken(data.refreshToken || '');
+    setUser({
+      username: data.username,
+      roles: data.roles
+    });
+  };
+
+  const clearSession = () => {
+    setToken('');
+    setRefreshToken('');
+    setUser(null);
+  };
+
+  // Renew the access token; refresh tokens are single use, so concurrent callers share one request
+  let pendingRefresh = null;
+  const refreshSession = () => {
+    if (!pendingRefresh) {
+      pendingRefresh = (async () => {
+        const response = await fetch('http://localhost:8081/api/auth/refresh', {
+          method: 'POST',
+          headers: {
+            'Content-Type': 'application/json'
+          },
+          body: JSON.stringify({ refreshToken: refreshToken() })
+        });
+
+        if (!response.ok) {
+          clearSession();
+          return false;
+        }
+
+        setSession(await response.json());
+        return true;
+      })()
+        .catch(() => false)
+        .finally(() => {
+          pendingRefresh = null;
+        });
+    }
+    return pendingRefresh;
+  };
+
+  const isExpiring = (currentToken) => {
+    const exp = parseToken(currentToken)?.exp;
+    return !exp || exp * 1000 - Date.now() < 30000;
+  };
+
+  // fetch with the access token, renewed first when it is about to expire and once more after a 401
+  const authFetch = async (url, options = {}) => {
+    if (refreshToken() && isExpiring(token())) {
+      await refreshSession();
+    }
+
+    const send = () => fetch(url, {
+      ...options,
+      headers: {
+        ...options.headers,
+        'Authorization': `Bearer ${token()}`
+      }
+    });
+
+    let response = await send();
+    if (response.status === 401 && refreshToken() && await refreshSession()) {
+      response = await send();
+    }
+    return response;
+  };
+
   // Auth actions
   const login = async (username, password) => {
     setLoading(true);
@@ -84,11 +166,7 @@ export const createAuthStore = () => {
         throw new Error(data.message || 'Login failed');
       }
       
-      setToken(data.token);
-      setUser({
-        username: data.username,
-        roles: data.roles
-      });
+      setSession(data);
       
       return data;
     } catch (err) {
@@ -118,11 +196,7 @@ export const createAuthStore = () => {
         throw new Error(data.message || 'Signup failed');
       }
       
-      setToken(data.token);
-      setUser({
-        username: data.username,
-        roles: data.roles
-      });
+      setSession(data);
       
       return data;
     } catch (err) {
@@ -134,8 +208,18 @@ export const createAuthStore = () => {
   };
 
   const logout = () => {
-    setToken('');
-    setUser(null);
+    const currentRefreshToken = refreshToken();
+    if (currentRefreshToken) {
+      // Revoke the session on the server; the local session ends either way
+      fetch('http://localhost:8081/api/auth/logout', {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json'
+        },
+        body: JSON.stringify({ refreshToken: currentRefreshToken })
+      }).catch(() => {});
+    }
+    clearSession();
   };
 
   // Helper to check authorization for routes
@@ -158,6 +242,7 @@ export const createAuthStore = () => {
     signup,
     logout,
     checkAccess,
+    authFetch,
     
     // Getters
     get isAuthenticated() { return store.isAuthenticated; },